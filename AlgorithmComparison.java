@@ -0,0 +1,133 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+// Runs every single-core algorithm on one workload at the same time. Each scheduler shares the workload's
+// columns read-only and owns only its per-run state, so nothing is copied per algorithm and the wall time
+// is that of the slowest algorithm rather than the sum of all of them.
+public class AlgorithmComparison {
+    public enum Algorithm {
+        FCFS("FCFS"),
+        SJF("SJF"),
+        SRTF("SRTF"),
+        ROUND_ROBIN("RR"),
+        MLFQ("MLFQ");
+
+        private final String shortName;
+
+        Algorithm(String shortName) {
+            this.shortName = shortName;
+        }
+
+        public String getShortName() { return shortName; }
+    }
+
+    private static final Algorithm[] ALGORITHMS = Algorithm.values();
+
+    private final ForkJoinPool pool;
+    private final Scheduler[] schedulers = new Scheduler[ALGORITHMS.length];
+    private final long[] runNanos = new long[ALGORITHMS.length];
+    private final long totalBurst;
+    private long wallNanos;
+
+    public AlgorithmComparison(ProcessTable workload, int timeQuantum, int allotmentTime) {
+        this(workload, timeQuantum, allotmentTime, ForkJoinPool.commonPool());
+    }
+
+    public AlgorithmComparison(ProcessTable workload, int timeQuantum, int allotmentTime, ForkJoinPool pool) {
+        this.pool = pool;
+        schedulers[Algorithm.FCFS.ordinal()] = new FCFSScheduler(workload);
+        schedulers[Algorithm.SJF.ordinal()] = new SJFScheduler(workload);
+        schedulers[Algorithm.SRTF.ordinal()] = new SRTFScheduler(workload);
+        schedulers[Algorithm.ROUND_ROBIN.ordinal()] = new RoundRobinScheduler(workload, timeQuantum);
+        schedulers[Algorithm.MLFQ.ordinal()] = new MLFQScheduler(workload, timeQuantum, allotmentTime);
+        for (Scheduler scheduler : schedulers) {
+            scheduler.setVerbose(false);
+        }
+
+        long burst = 0;
+        for (int row = 0; row < workload.size(); row++) {
+            burst += workload.getBurstTime(row);
+        }
+        totalBurst = burst;
+    }
+
+    // Each algorithm is its own task on the pool; a failure or cancellation in one stops the others
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, schedulers.length).parallel().forEach(i -> {
+                long runStart = System.nanoTime();
+                try {
+                    schedulers[i].schedule();
+                } catch (RuntimeException e) {
+                    cancel();
+                    throw e;
+                }
+                runNanos[i] = System.nanoTime() - runStart;
+            })).get();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Algorithm comparison interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            throw new IllegalStateException("Algorithm comparison failed", e.getCause());
+        } finally {
+            wallNanos = System.nanoTime() - start;
+        }
+    }
+
+    public void cancel() {
+        for (Scheduler scheduler : schedulers) {
+            scheduler.cancel();
+        }
+    }
+
+    // Progress summed over all algorithms, out of getTotalWork()
+    public long getCompletedWork() {
+        long completed = 0;
+        for (Scheduler scheduler : schedulers) {
+            completed += scheduler.getCompletedWork();
+        }
+        return completed;
+    }
+
+    public long getTotalWork() {
+        return totalBurst * schedulers.length;
+    }
+
+    // Getters
+    public static List<Algorithm> getAlgorithms() { return Arrays.asList(ALGORITHMS); }
+    public Scheduler getScheduler(Algorithm algorithm) { return schedulers[algorithm.ordinal()]; }
+    public long getRunNanos(Algorithm algorithm) { return runNanos[algorithm.ordinal()]; }
+    public long getWallNanos() { return wallNanos; }
+
+    // Side-by-side averages and percentiles, one row per algorithm
+    public String format() {
+        StringBuilder output = new StringBuilder();
+        output.append(String.format("%-10s %-10s %-8s %-8s %-8s %-10s %-8s %-10s %-8s %-10s%n",
+                "Algorithm", "Avg TAT", "p50 TAT", "p90 TAT", "p99 TAT", "Avg Resp", "p99 Resp",
+                "Avg Wait", "Util %", "Run ms"));
+        output.append("-".repeat(100)).append("\n");
+        long slowest = 0;
+        long sum = 0;
+        for (Algorithm algorithm : ALGORITHMS) {
+            SchedulingMetrics metrics = getScheduler(algorithm).getMetrics();
+            LatencyHistogram turnaround = metrics.getTurnaround();
+            output.append(String.format("%-10s %-10.2f %-8d %-8d %-8d %-10.2f %-8d %-10.2f %-8.1f %-10.1f%n",
+                    algorithm.getShortName(), turnaround.getMean(), turnaround.getPercentile(50),
+                    turnaround.getPercentile(90), turnaround.getPercentile(99), metrics.getResponse().getMean(),
+                    metrics.getResponse().getPercentile(99), metrics.getWaiting().getMean(),
+                    100 * metrics.getUtilization(1), getRunNanos(algorithm) / 1e6));
+            slowest = Math.max(slowest, getRunNanos(algorithm));
+            sum += getRunNanos(algorithm);
+        }
+        output.append("-".repeat(100)).append("\n");
+        output.append(String.format("Wall time: %.1f ms (slowest algorithm %.1f ms, all algorithms %.1f ms)%n",
+                wallNanos / 1e6, slowest / 1e6, sum / 1e6));
+        return output.toString();
+    }
+}
@@ -1,26 +1,44 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.Scanner;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 
 public class CPUSchedulingVisualization {
     private static Scanner scanner = new Scanner(System.in);
+    private static ProcessTable workload;
+    private static Scheduler[] schedulers = new Scheduler[6]; // By menu choice; re-run instead of rebuilt
+    private static final int PAGE_LINES = 40;
     
     public static void main(String[] args) {
         System.out.println("=".repeat(60));
         System.out.println("    CPU SCHEDULING VISUALIZATION SIMULATOR");
         System.out.println("=".repeat(60));
         
-        List<Process> processes = getProcesses();
+        workload = getWorkload();
         
         while (true) {
             displayMenu();
-            int choice = getValidChoice(1, 6);
+            int choice = getValidChoice(1, 9);
             
-            if (choice == 6) {
+            if (choice == 9) {
                 System.out.println("\nThank you for using CPU Scheduling Visualization!");
                 break;
             }
             
-            runSchedulingAlgorithm(choice, processes);
+            if (choice == 6) {
+                compareAllAlgorithms();
+            } else if (choice == 7) {
+                runOnlineSimulation();
+            } else if (choice == 8) {
+                runMultiCoreSimulation();
+            } else {
+                runSchedulingAlgorithm(choice);
+            }
             
             System.out.println("\nPress Enter to continue...");
             scanner.nextLine();
@@ -29,25 +47,31 @@ public class CPUSchedulingVisualization {
         scanner.close();
     }
     
-    private static List<Process> getProcesses() {
+    private static ProcessTable getWorkload() {
         System.out.println("\nPROCESS INPUT OPTIONS:");
         System.out.println("1. Use sample processes");
         System.out.println("2. Generate random processes");
         System.out.println("3. Manually input processes");
+        System.out.println("4. Load processes from a trace file (CSV or binary)");
+        System.out.println("5. Generate a synthetic workload (Poisson or bursty arrivals)");
         
-        int choice = getValidChoice(1, 3);
+        int choice = getValidChoice(1, 5);
         
         switch (choice) {
             case 1:
-                return ProcessGenerator.generateSampleProcesses();
+                return ProcessTable.fromProcesses(ProcessGenerator.generateSampleProcesses());
             case 2:
                 System.out.print("Enter number of processes to generate: ");
                 int numProcesses = getValidPositiveInteger();
-                return ProcessGenerator.generateRandomProcesses(numProcesses);
+                return ProcessTable.fromProcesses(ProcessGenerator.generateRandomProcesses(numProcesses));
             case 3:
-                return getManualProcesses();
+                return ProcessTable.fromProcesses(getManualProcesses());
+            case 4:
+                return getTraceWorkload();
+            case 5:
+                return getGeneratedWorkload();
             default:
-                return ProcessGenerator.generateSampleProcesses();
+                return ProcessTable.fromProcesses(ProcessGenerator.generateSampleProcesses());
         }
     }
     
@@ -70,6 +94,58 @@ public class CPUSchedulingVisualization {
         return processes;
     }
     
+    // The loaded columns become the workload as they are; no Process objects are made for a trace
+    private static ProcessTable getTraceWorkload() {
+        while (true) {
+            System.out.print("Enter trace file path: ");
+            String path = scanner.nextLine().trim();
+            try {
+                ProcessTable table = WorkloadLoader.load(Paths.get(path));
+                System.out.println("Loaded " + table.size() + " processes.");
+                return table;
+            } catch (IOException | InvalidPathException e) {
+                System.out.println("Could not load trace: " + e);
+            }
+        }
+    }
+    
+    // Seeded, so the same answers give the same workload; millions of processes go straight into columns
+    private static ProcessTable getGeneratedWorkload() {
+        System.out.print("Enter number of processes to generate: ");
+        int count = getValidPositiveInteger();
+        System.out.print("Enter random seed: ");
+        int seed = getValidNonNegativeInteger();
+        
+        System.out.println("Arrivals: 1. Poisson (steady)  2. Bursty (calm periods with short bursts)");
+        System.out.print("Select arrivals (1-2): ");
+        WorkloadGenerator.ArrivalProcess arrivals = getValidChoice(1, 2) == 1
+                ? WorkloadGenerator.ArrivalProcess.poisson(0.1)
+                : WorkloadGenerator.ArrivalProcess.bursty(0.02, 0.5, 500, 50);
+        
+        System.out.println("Burst times: 1. Exponential  2. Pareto (heavy-tailed)  3. Bimodal (short and long jobs)  4. Uniform");
+        System.out.print("Select burst times (1-4): ");
+        WorkloadGenerator.BurstDistribution bursts;
+        switch (getValidChoice(1, 4)) {
+            case 2:
+                bursts = WorkloadGenerator.BurstDistribution.pareto(1.5, 2);
+                break;
+            case 3:
+                bursts = WorkloadGenerator.BurstDistribution.bimodal(WorkloadGenerator.BurstDistribution.uniform(1, 5),
+                        WorkloadGenerator.BurstDistribution.uniform(50, 100), 0.1);
+                break;
+            case 4:
+                bursts = WorkloadGenerator.BurstDistribution.uniform(1, 20);
+                break;
+            default:
+                bursts = WorkloadGenerator.BurstDistribution.exponential(10);
+                break;
+        }
+        
+        ProcessTable table = new WorkloadGenerator(seed).setArrivals(arrivals).setBursts(bursts).generate(count);
+        System.out.println("Generated " + table.size() + " processes.");
+        return table;
+    }
+    
     private static void displayMenu() {
         System.out.println("\n" + "=".repeat(60));
         System.out.println("SCHEDULING ALGORITHMS");
@@ -79,42 +155,231 @@ public class CPUSchedulingVisualization {
         System.out.println("3. Shortest Remaining Time First (Preemptive)");
         System.out.println("4. Round Robin");
         System.out.println("5. Multilevel Feedback Queue (MLFQ)");
-        System.out.println("6. Exit");
-        System.out.print("\nSelect algorithm (1-6): ");
+        System.out.println("6. Compare All Algorithms");
+        System.out.println("7. Online Simulation (workload streamed as live arrivals)");
+        System.out.println("8. Multi-Core Simulation (one run queue per core)");
+        System.out.println("9. Exit");
+        System.out.print("\nSelect algorithm (1-9): ");
     }
     
-    private static void runSchedulingAlgorithm(int choice, List<Process> processes) {
-        ProcessGenerator.displayProcesses(processes);
+    private static void runSchedulingAlgorithm(int choice) {
+        newReporter().printProcessList(workload);
         
-        Scheduler scheduler = null;
+        // A scheduler from an earlier run starts over on the same workload, reusing its buffers
+        Scheduler scheduler = schedulers[choice];
         
         switch (choice) {
             case 1:
-                scheduler = new FCFSScheduler(processes);
+                if (scheduler == null) {
+                    scheduler = new FCFSScheduler(workload);
+                }
                 break;
             case 2:
-                scheduler = new SJFScheduler(processes);
+                if (scheduler == null) {
+                    scheduler = new SJFScheduler(workload);
+                }
                 break;
             case 3:
-                scheduler = new SRTFScheduler(processes);
+                if (scheduler == null) {
+                    scheduler = new SRTFScheduler(workload);
+                }
                 break;
             case 4:
                 System.out.print("Enter time quantum for Round Robin: ");
                 int timeQuantum = getValidPositiveInteger();
-                scheduler = new RoundRobinScheduler(processes, timeQuantum);
+                if (scheduler == null) {
+                    scheduler = new RoundRobinScheduler(workload, timeQuantum);
+                } else {
+                    ((RoundRobinScheduler) scheduler).setTimeQuantum(timeQuantum);
+                }
                 break;
             case 5:
                 System.out.print("Enter time quantum for MLFQ: ");
                 int mlfqTimeQuantum = getValidPositiveInteger();
                 System.out.print("Enter allotment time for MLFQ: ");
                 int allotmentTime = getValidPositiveInteger();
-                scheduler = new MLFQScheduler(processes, mlfqTimeQuantum, allotmentTime);
+                if (scheduler == null) {
+                    scheduler = new MLFQScheduler(workload, mlfqTimeQuantum, allotmentTime);
+                } else {
+                    MLFQScheduler mlfq = (MLFQScheduler) scheduler;
+                    mlfq.setTimeQuantum(mlfqTimeQuantum);
+                    mlfq.setAllotmentTime(allotmentTime);
+                }
                 break;
         }
         
         if (scheduler != null) {
+            schedulers[choice] = scheduler;
             scheduler.schedule();
-            scheduler.displayResults();
+            printResults(scheduler);
+        }
+    }
+    
+    private static void printResults(Scheduler scheduler) {
+        ConsoleReporter reporter = newReporter();
+        reporter.print(scheduler);
+        if (reporter.isTruncated()) {
+            saveFullReport(path -> reporter.writeReport(path, scheduler));
+        }
+    }
+    
+    // All five algorithms run in parallel on the shared workload
+    private static void compareAllAlgorithms() {
+        newReporter().printProcessList(workload);
+        
+        System.out.print("Enter time quantum for Round Robin and MLFQ: ");
+        int timeQuantum = getValidPositiveInteger();
+        System.out.print("Enter allotment time for MLFQ: ");
+        int allotmentTime = getValidPositiveInteger();
+        
+        AlgorithmComparison comparison = new AlgorithmComparison(workload, timeQuantum, allotmentTime);
+        comparison.run();
+        newReporter().printComparison(comparison);
+    }
+    
+    // Output to a terminal pauses every PAGE_LINES lines; redirected output is written straight through
+    private static ConsoleReporter newReporter() {
+        ConsoleReporter reporter = new ConsoleReporter();
+        if (System.console() != null) {
+            reporter.setPaging(PAGE_LINES, () -> {
+                System.out.print("-- More: Enter for the next page, q to stop -- ");
+                return !scanner.nextLine().trim().equalsIgnoreCase("q");
+            });
+        }
+        return reporter;
+    }
+    
+    // The workload is published one arrival at a time from a producer thread, the way a live source would
+    // feed it, and scheduled as it comes in; only the processes in flight are held by the simulator
+    private static void runOnlineSimulation() {
+        MultiCoreSimulator.Policy policy = getPolicy();
+        int timeQuantum = 1;
+        int allotmentTime = 1;
+        if (policy == MultiCoreSimulator.Policy.ROUND_ROBIN || policy == MultiCoreSimulator.Policy.MLFQ) {
+            System.out.print("Enter time quantum: ");
+            timeQuantum = getValidPositiveInteger();
+        }
+        if (policy == MultiCoreSimulator.Policy.MLFQ) {
+            System.out.print("Enter allotment time: ");
+            allotmentTime = getValidPositiveInteger();
+        }
+        System.out.print("Enter time units per second to pace the run (0 runs as fast as arrivals come in): ");
+        int pacing = getValidNonNegativeInteger();
+        System.out.print("Enter a file path to record a schedule trace (or press Enter to skip): ");
+        String tracePath = scanner.nextLine().trim();
+        
+        OnlineSimulator simulator = new OnlineSimulator(policy, timeQuantum, allotmentTime);
+        simulator.setPacing(pacing);
+        long runNanos;
+        try {
+            if (tracePath.isEmpty()) {
+                runNanos = streamWorkload(simulator);
+            } else {
+                // Closing writes the trace's block index, so a failure there fails the recording too
+                try (ScheduleTraceWriter trace = new ScheduleTraceWriter(Paths.get(tracePath))) {
+                    simulator.setListener(trace);
+                    runNanos = streamWorkload(simulator);
+                }
+                System.out.println("Schedule trace written to " + tracePath);
+            }
+        } catch (IOException | UncheckedIOException | InvalidPathException e) {
+            System.out.println("Could not record the trace: " + e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("ONLINE SIMULATION RESULTS");
+        System.out.println("=".repeat(60));
+        System.out.printf("%d arrivals simulated to time %d in %.1f ms, at most %d in flight%n",
+                simulator.getSubmitted(), simulator.getClock(), runNanos / 1e6, simulator.getPeakInFlight());
+        if (pacing > 0) {
+            System.out.printf("Late arrivals: %d, largest lag behind the wall clock: %.2f ms%n",
+                    simulator.getLateArrivals(), simulator.getMaxLagNanos() / 1e6);
+        }
+        System.out.println("\nSUMMARY:");
+        System.out.println("-".repeat(66));
+        System.out.print(simulator.getMetrics().format(1));
+    }
+    
+    // The workload spread over several cores, each with its own run queue and Gantt chart, printed through
+    // the same cut-down console report as a single-core run
+    private static void runMultiCoreSimulation() {
+        System.out.print("Enter number of cores: ");
+        int cores = getValidPositiveInteger();
+        MultiCoreSimulator.Policy policy = getPolicy();
+        MultiCoreSimulator simulator = new MultiCoreSimulator(workload, cores, policy);
+        if (policy == MultiCoreSimulator.Policy.ROUND_ROBIN || policy == MultiCoreSimulator.Policy.MLFQ) {
+            System.out.print("Enter time quantum: ");
+            simulator.setTimeQuantum(getValidPositiveInteger());
+        }
+        if (policy == MultiCoreSimulator.Policy.MLFQ) {
+            System.out.print("Enter allotment time: ");
+            simulator.setAllotmentTime(getValidPositiveInteger());
+        }
+        System.out.println("Placement: 1. Round robin  2. Least loaded core");
+        System.out.print("Select placement (1-2): ");
+        simulator.setPlacement(MultiCoreSimulator.Placement.values()[getValidChoice(1, 2) - 1]);
+        System.out.println("Balancing: 1. None  2. Work stealing  3. Work stealing and queue balancing");
+        System.out.print("Select balancing (1-3): ");
+        simulator.setBalancing(MultiCoreSimulator.Balancing.values()[getValidChoice(1, 3) - 1]);
+        
+        simulator.run();
+        ConsoleReporter reporter = newReporter();
+        reporter.print(simulator);
+        if (reporter.isTruncated()) {
+            saveFullReport(path -> reporter.writeReport(path, simulator));
+        }
+    }
+    
+    private static MultiCoreSimulator.Policy getPolicy() {
+        System.out.println("Policy: 1. FCFS  2. SJF  3. SRTF  4. Round Robin  5. MLFQ");
+        System.out.print("Select policy (1-5): ");
+        return MultiCoreSimulator.Policy.values()[getValidChoice(1, 5) - 1];
+    }
+    
+    // Runs the whole workload through the simulator; returns the time it took
+    private static long streamWorkload(OnlineSimulator simulator) throws InterruptedException {
+        long start = System.nanoTime();
+        simulator.run(publishArrivals(workload));
+        return System.nanoTime() - start;
+    }
+    
+    // Each subscriber gets its own producer thread submitting the rows in arrival order; submit() blocks
+    // while the subscriber is behind on demand
+    private static Flow.Publisher<Process> publishArrivals(ProcessTable table) {
+        int[] order = table.arrivalOrder();
+        return subscriber -> {
+            SubmissionPublisher<Process> publisher = new SubmissionPublisher<>();
+            publisher.subscribe(subscriber);
+            Thread producer = new Thread(() -> {
+                for (int row : order) {
+                    publisher.submit(new Process(table.getProcessId(row), table.getArrivalTime(row), table.getBurstTime(row)));
+                }
+                publisher.close();
+            }, "online-arrivals");
+            producer.setDaemon(true);
+            producer.start();
+        };
+    }
+    
+    private interface Report {
+        void writeTo(Path path) throws IOException;
+    }
+    
+    private static void saveFullReport(Report report) {
+        System.out.print("\nOutput was truncated. Enter a file path for the full report (or press Enter to skip): ");
+        String path = scanner.nextLine().trim();
+        if (path.isEmpty()) {
+            return;
+        }
+        try {
+            report.writeTo(Paths.get(path));
+            System.out.println("Full report written to " + path);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Could not write report: " + e);
         }
     }
     
@@ -3,8 +3,17 @@ import javax.swing.border.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import javax.swing.Timer;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
@@ -15,6 +24,8 @@ public class CPUSimulator extends JFrame {
     private DefaultTableModel tableModel;
     private GanttChart3D ganttChart3D;
     private JTextArea resultsArea;
+    private JTable resultsTable;
+    private ResultsTableModel resultsModel;
     private JComboBox<String> algorithmCombo;
     private JSpinner timeQuantumSpinner;
     private JSpinner allotmentTimeSpinner;
@@ -29,6 +40,40 @@ public class CPUSimulator extends JFrame {
     private JButton removeProcessBtn;
     private JButton clearBtn;
     private JButton runBtn;
+    private JButton tuneBtn;
+    private JButton compareBtn;
+    private JButton saveTraceBtn;
+    private JButton openTraceBtn;
+    private JButton cancelBtn;
+    private JProgressBar progressBar;
+    
+    // Schedule traces: the last single run can be saved, and an opened trace is browsed in the Gantt chart
+    // a window at a time, panned with the scroll bar under it
+    private Scheduler lastScheduler;
+    private ScheduleTrace openTrace;
+    private JScrollBar ganttScrollBar;
+    
+    // Compare All: summary table above one chart per algorithm, stacked in AlgorithmComparison order
+    private JTextArea comparisonArea;
+    private GanttChart3D[] comparisonCharts;
+    
+    // Simulations run on this thread so the UI stays responsive; only one runs at a time
+    private final ExecutorService simulationExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "simulation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Runnable cancelRunning; // Cancels the simulation in progress; null when none is running
+    private Timer progressTimer;
+    
+    // One clock drives every Gantt animation: frames fire at a fixed rate and reveal however much of the
+    // timeline the elapsed wall-clock time covers, so long timelines skip ticks instead of playing for hours
+    private static final int ANIMATION_FPS = 30;
+    private final Timer animationTimer = new Timer(1000 / ANIMATION_FPS, e -> animationFrame());
+    private GanttChart3D[] animatedCharts;
+    private int animatedEndTime;
+    private long animationStartNanos;
+    private double animationTicksPerSecond;
     
     public CPUSimulator() {
         setTitle("CPU Scheduling Simulator");
@@ -136,7 +181,9 @@ public class CPUSimulator extends JFrame {
         speedLabel.setFont(new Font("Arial", Font.BOLD, 12));
         
         // 3D Gantt chart component
-        ganttChart3D = new GanttChart3D(new ArrayList<>());
+        ganttChart3D = new GanttChart3D(new Timeline());
+        ganttScrollBar = new JScrollBar(JScrollBar.HORIZONTAL);
+        ganttScrollBar.setVisible(false);
         
         // Results text area
         resultsArea = new JTextArea();
@@ -146,6 +193,31 @@ public class CPUSimulator extends JFrame {
         resultsArea.setForeground(Color.BLACK);
         resultsArea.setCaretColor(Color.BLACK);
         
+        // Per-process results; rows are read from the last run's process table as they are displayed
+        resultsModel = new ResultsTableModel();
+        resultsTable = new JTable(resultsModel);
+        resultsTable.setAutoCreateRowSorter(false);
+        resultsTable.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        resultsTable.getTableHeader().setBackground(new Color(200, 200, 200));
+        resultsTable.getTableHeader().setForeground(Color.BLACK);
+        resultsTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        resultsTable.getColumnModel().getColumn(ResultsTableModel.PROCESS).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText("P" + value);
+            }
+        });
+        
+        comparisonArea = new JTextArea();
+        comparisonArea.setEditable(false);
+        comparisonArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        comparisonArea.setBackground(new Color(200, 200, 200));
+        comparisonArea.setForeground(Color.BLACK);
+        comparisonCharts = new GanttChart3D[AlgorithmComparison.getAlgorithms().size()];
+        for (int i = 0; i < comparisonCharts.length; i++) {
+            comparisonCharts[i] = new GanttChart3D(new Timeline());
+        }
+        
         // Create buttons
         loadSampleBtn = new JButton("Load Sample");
         generateRandomBtn = new JButton("Generate Random");
@@ -153,6 +225,18 @@ public class CPUSimulator extends JFrame {
         removeProcessBtn = new JButton("Remove Process");
         clearBtn = new JButton("Clear All");
         runBtn = new JButton("Run Simulation");
+        tuneBtn = new JButton("Tune Parameters");
+        compareBtn = new JButton("Compare All");
+        saveTraceBtn = new JButton("Save Trace");
+        saveTraceBtn.setEnabled(false);
+        openTraceBtn = new JButton("Open Trace");
+        cancelBtn = new JButton("Cancel");
+        cancelBtn.setEnabled(false);
+        
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Idle");
+        progressBar.setPreferredSize(new Dimension(300, 20));
         
         // Style buttons with dark theme
         styleButton(loadSampleBtn);
@@ -161,6 +245,11 @@ public class CPUSimulator extends JFrame {
         styleButton(removeProcessBtn);
         styleButton(clearBtn);
         styleButton(runBtn);
+        styleButton(tuneBtn);
+        styleButton(compareBtn);
+        styleButton(saveTraceBtn);
+        styleButton(openTraceBtn);
+        styleButton(cancelBtn);
         
         // Special styling for run button
         runBtn.setBackground(new Color(173, 216, 230));
@@ -280,13 +369,48 @@ public class CPUSimulator extends JFrame {
         JScrollPane ganttScrollPane = new JScrollPane(ganttChart3D);
         ganttScrollPane.setPreferredSize(new Dimension(600, 300));
         ganttScrollPane.setBackground(new Color(20, 20, 20));
-        tabbedPane.addTab("Gantt Chart", ganttScrollPane);
-        
-        // Results tab
+        JPanel ganttPanel = new JPanel(new BorderLayout());
+        ganttPanel.setBackground(new Color(20, 20, 20));
+        ganttPanel.add(ganttScrollPane, BorderLayout.CENTER);
+        ganttPanel.add(ganttScrollBar, BorderLayout.SOUTH);
+        tabbedPane.addTab("Gantt Chart", ganttPanel);
+        
+        // Results tab: process table with the summary (or parameter sweep) text below it
+        JScrollPane resultsTableScrollPane = new JScrollPane(resultsTable);
+        resultsTableScrollPane.setBackground(new Color(20, 20, 20));
         JScrollPane resultsScrollPane = new JScrollPane(resultsArea);
-        resultsScrollPane.setPreferredSize(new Dimension(600, 300));
+        resultsScrollPane.setPreferredSize(new Dimension(600, 150));
         resultsScrollPane.setBackground(new Color(20, 20, 20));
-        tabbedPane.addTab("Process Details", resultsScrollPane);
+        JSplitPane resultsSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, resultsTableScrollPane, resultsScrollPane);
+        resultsSplitPane.setPreferredSize(new Dimension(600, 300));
+        resultsSplitPane.setResizeWeight(0.6);
+        tabbedPane.addTab("Process Details", resultsSplitPane);
+        
+        // Comparison tab: metrics side by side, then the Gantt charts stacked on a shared time axis
+        JPanel chartsPanel = new JPanel(new GridLayout(0, 1));
+        chartsPanel.setBackground(new Color(20, 20, 20));
+        List<AlgorithmComparison.Algorithm> algorithms = AlgorithmComparison.getAlgorithms();
+        for (int i = 0; i < comparisonCharts.length; i++) {
+            JPanel chartPanel = new JPanel(new BorderLayout());
+            chartPanel.setBackground(new Color(20, 20, 20));
+            JLabel chartLabel = new JLabel(algorithms.get(i).getShortName());
+            chartLabel.setForeground(new Color(173, 216, 230));
+            chartLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            chartLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 0, 0));
+            chartPanel.add(chartLabel, BorderLayout.NORTH);
+            chartPanel.add(comparisonCharts[i], BorderLayout.CENTER);
+            chartsPanel.add(chartPanel);
+        }
+        JScrollPane chartsScrollPane = new JScrollPane(chartsPanel);
+        chartsScrollPane.getVerticalScrollBar().setUnitIncrement(20);
+        chartsScrollPane.setBackground(new Color(20, 20, 20));
+        JScrollPane comparisonScrollPane = new JScrollPane(comparisonArea);
+        comparisonScrollPane.setPreferredSize(new Dimension(600, 150));
+        comparisonScrollPane.setBackground(new Color(20, 20, 20));
+        JSplitPane comparisonSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, comparisonScrollPane, chartsScrollPane);
+        comparisonSplitPane.setPreferredSize(new Dimension(600, 300));
+        comparisonSplitPane.setResizeWeight(0.3);
+        tabbedPane.addTab("Comparison", comparisonSplitPane);
         
         resultsContainer.add(tabbedPane, BorderLayout.CENTER);
         panel.add(resultsContainer, BorderLayout.CENTER);
@@ -345,6 +469,20 @@ public class CPUSimulator extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         buttonPanel.setBackground(new Color(20, 20, 20));
         buttonPanel.add(runBtn);
+        buttonPanel.add(tuneBtn);
+        buttonPanel.add(compareBtn);
+        buttonPanel.add(saveTraceBtn);
+        buttonPanel.add(openTraceBtn);
+        buttonPanel.add(cancelBtn);
+        
+        JPanel progressPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        progressPanel.setBackground(new Color(20, 20, 20));
+        progressPanel.add(progressBar);
+        
+        JPanel actionPanel = new JPanel(new BorderLayout());
+        actionPanel.setBackground(new Color(20, 20, 20));
+        actionPanel.add(buttonPanel, BorderLayout.NORTH);
+        actionPanel.add(progressPanel, BorderLayout.SOUTH);
         
         // Combine all panels
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -360,7 +498,7 @@ public class CPUSimulator extends JFrame {
         topPanel.add(bottomPanel, BorderLayout.SOUTH);
         
         panel.add(topPanel, BorderLayout.CENTER);
-        panel.add(buttonPanel, BorderLayout.SOUTH);
+        panel.add(actionPanel, BorderLayout.SOUTH);
         
         return panel;
     }
@@ -396,6 +534,36 @@ public class CPUSimulator extends JFrame {
         removeProcessBtn.addActionListener(e -> removeProcess());
         clearBtn.addActionListener(e -> clearProcesses());
         runBtn.addActionListener(e -> runSimulation());
+        tuneBtn.addActionListener(e -> tuneParameters());
+        compareBtn.addActionListener(e -> compareAll());
+        saveTraceBtn.addActionListener(e -> saveTrace());
+        openTraceBtn.addActionListener(e -> openTraceFile());
+        ganttScrollBar.addAdjustmentListener(e -> ganttChart3D.scrollTo(e.getValue()));
+        ganttChart3D.addChangeListener(e -> updateGanttScrollBar());
+        ganttChart3D.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                updateGanttScrollBar();
+            }
+        });
+        cancelBtn.addActionListener(e -> cancelSimulation());
+        
+        // Click a results column header to sort by it; click again to reverse
+        resultsTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                int column = resultsTable.columnAtPoint(evt.getPoint());
+                if (column >= 0) {
+                    sortResults(resultsTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
+        
+        // Selecting a result outlines that process's slices in the Gantt chart
+        resultsTable.getSelectionModel().addListSelectionListener(e -> {
+            int row = resultsTable.getSelectedRow();
+            ganttChart3D.setSelectedProcess(row < 0 ? Timeline.IDLE
+                    : (Integer) resultsModel.getValueAt(row, ResultsTableModel.PROCESS));
+        });
     }
     
     private void styleButton(JButton button) {
@@ -474,71 +642,307 @@ public class CPUSimulator extends JFrame {
             JOptionPane.showMessageDialog(this, "Please add some processes first!", "No Processes", JOptionPane.WARNING_MESSAGE);
             return;
         }
+        if (cancelRunning != null) {
+            return;
+        }
         
-        String selectedAlgorithm = (String) algorithmCombo.getSelectedItem();
-        Scheduler scheduler = null;
-        
+        // Snapshot the processes so edits made while the simulation runs don't affect it
+        ProcessTable workload = ProcessTable.fromProcesses(processes);
+        Scheduler scheduler;
         try {
-            switch (selectedAlgorithm) {
-                case "First-Come First-Served (FCFS)":
-                    scheduler = new FCFSScheduler(processes);
-                    break;
-                case "Shortest Job First (SJF)":
-                    scheduler = new SJFScheduler(processes);
-                    break;
-                case "Shortest Remaining Time First (SRTF)":
-                    scheduler = new SRTFScheduler(processes);
-                    break;
-                case "Round Robin":
-                    int timeQuantum = (Integer) timeQuantumSpinner.getValue();
-                    scheduler = new RoundRobinScheduler(processes, timeQuantum);
-                    break;
-                case "Multilevel Feedback Queue (MLFQ)":
-                    int mlfqTimeQuantum = (Integer) timeQuantumSpinner.getValue();
-                    int allotmentTime = (Integer) allotmentTimeSpinner.getValue();
-                    scheduler = new MLFQScheduler(processes, mlfqTimeQuantum, allotmentTime);
-                    break;
-            }
-            
-            if (scheduler != null) {
-                // Capture output
+            scheduler = createScheduler(workload);
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Error running simulation: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (scheduler == null) {
+            return;
+        }
+        
+        long burst = 0;
+        for (int row = 0; row < workload.size(); row++) {
+            burst += workload.getBurstTime(row);
+        }
+        long totalBurst = burst;
+        stopAnimation();
+        startProgress(scheduler::cancel, scheduler::getCompletedWork, totalBurst,
+                () -> String.format("Time %d: %d of %d burst units done",
+                        scheduler.getProgressTime(), scheduler.getCompletedWork(), totalBurst));
+        
+        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
                 scheduler.schedule();
-                displayResults(scheduler);
+                return formatResults(scheduler);
             }
             
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error running simulation: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            @Override
+            protected void done() {
+                try {
+                    String resultsText = get();
+                    finishProgress("Completed at time " + scheduler.getTimeline().getEndTime(), true);
+                    displayResults(scheduler, resultsText);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof CancellationException) {
+                        finishProgress("Cancelled at time " + scheduler.getProgressTime(), false);
+                    } else {
+                        finishProgress("Failed", false);
+                        JOptionPane.showMessageDialog(CPUSimulator.this, "Error running simulation: " + ex.getCause().getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        };
+        simulationExecutor.execute(worker);
+    }
+    
+    private Scheduler createScheduler(ProcessTable workload) {
+        String selectedAlgorithm = (String) algorithmCombo.getSelectedItem();
+        switch (selectedAlgorithm) {
+            case "First-Come First-Served (FCFS)":
+                return new FCFSScheduler(workload);
+            case "Shortest Job First (SJF)":
+                return new SJFScheduler(workload);
+            case "Shortest Remaining Time First (SRTF)":
+                return new SRTFScheduler(workload);
+            case "Round Robin":
+                int timeQuantum = (Integer) timeQuantumSpinner.getValue();
+                return new RoundRobinScheduler(workload, timeQuantum);
+            case "Multilevel Feedback Queue (MLFQ)":
+                int mlfqTimeQuantum = (Integer) timeQuantumSpinner.getValue();
+                int allotmentTime = (Integer) allotmentTimeSpinner.getValue();
+                return new MLFQScheduler(workload, mlfqTimeQuantum, allotmentTime);
+            default:
+                return null;
         }
     }
     
-    private void displayResults(Scheduler scheduler) {
-        // Update the 3D Gantt chart
-        ganttChart3D.updateGanttChart(scheduler.ganttChart);
+    // Runs all five algorithms at once on one snapshot of the workload, sharing the run slot and progress bar
+    private void compareAll() {
+        if (processes.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please add some processes first!", "No Processes", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (cancelRunning != null) {
+            return;
+        }
         
-        // Create results output
-        StringBuilder resultsOutput = new StringBuilder();
+        ProcessTable workload = ProcessTable.fromProcesses(processes);
+        AlgorithmComparison comparison = new AlgorithmComparison(workload,
+                (Integer) timeQuantumSpinner.getValue(), (Integer) allotmentTimeSpinner.getValue());
+        long totalWork = comparison.getTotalWork();
+        stopAnimation();
+        startProgress(comparison::cancel, comparison::getCompletedWork, totalWork,
+                () -> String.format("Comparing: %d of %d burst units done", comparison.getCompletedWork(), totalWork));
         
-        // Process details
-        resultsOutput.append("PROCESS DETAILS:\n");
-        resultsOutput.append("-".repeat(80)).append("\n");
-        resultsOutput.append(String.format("%-10s %-12s %-10s %-12s %-12s %-12s%n", 
-                         "Process", "Arrival", "Burst", "Completion", "Turnaround", "Response"));
-        resultsOutput.append("-".repeat(80)).append("\n");
+        SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                comparison.run();
+                return comparison.format();
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    String comparisonText = get();
+                    finishProgress(String.format("Compared %d algorithms in %.1f ms",
+                            comparisonCharts.length, comparison.getWallNanos() / 1e6), true);
+                    displayComparison(comparison, comparisonText);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof CancellationException) {
+                        finishProgress("Comparison cancelled", false);
+                    } else {
+                        finishProgress("Failed", false);
+                        JOptionPane.showMessageDialog(CPUSimulator.this, "Error comparing algorithms: " + ex.getCause().getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        };
+        simulationExecutor.execute(worker);
+    }
+    
+    // The simulation stops at its next loop iteration; done() then reports the cancellation
+    private void cancelSimulation() {
+        if (cancelRunning != null) {
+            cancelRunning.run();
+            cancelBtn.setEnabled(false);
+            progressBar.setString("Cancelling...");
+        }
+    }
+    
+    // Poll the published progress: completed burst time against the total burst time to be scheduled
+    private void startProgress(Runnable cancel, LongSupplier completedWork, long totalWork, Supplier<String> status) {
+        cancelRunning = cancel;
+        runBtn.setEnabled(false);
+        tuneBtn.setEnabled(false);
+        compareBtn.setEnabled(false);
+        saveTraceBtn.setEnabled(false);
+        cancelBtn.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setString("Starting...");
+        
+        progressTimer = new Timer(100, e -> {
+            progressBar.setValue(totalWork == 0 ? 1000 : (int) (1000 * completedWork.getAsLong() / totalWork));
+            progressBar.setString(status.get());
+        });
+        progressTimer.start();
+    }
+    
+    private void finishProgress(String message, boolean completed) {
+        progressTimer.stop();
+        cancelRunning = null;
+        runBtn.setEnabled(true);
+        tuneBtn.setEnabled(true);
+        compareBtn.setEnabled(true);
+        saveTraceBtn.setEnabled(lastScheduler != null);
+        cancelBtn.setEnabled(false);
+        if (completed) {
+            progressBar.setValue(1000);
+        }
+        progressBar.setString(message);
+    }
+    
+    // Sweep every quantum (and allotment for MLFQ) in the spinner ranges in parallel and select the best;
+    // the sweep runs on the simulation executor and shares the run slot, progress bar and Cancel button
+    private void tuneParameters() {
+        if (processes.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please add some processes first!", "No Processes", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (cancelRunning != null) {
+            return;
+        }
         
-        for (Process p : scheduler.processes) {
-            p.calculateMetrics();
-            resultsOutput.append(String.format("%-10s %-12d %-10d %-12d %-12d %-12d%n",
-                             "P" + p.getProcessId(), p.getArrivalTime(), p.getBurstTime(),
-                             p.getCompletionTime(), p.getTurnaroundTime(), p.getResponseTime()));
+        String selectedAlgorithm = (String) algorithmCombo.getSelectedItem();
+        ParameterSweep.Policy policy;
+        if (selectedAlgorithm.contains("Round Robin")) {
+            policy = ParameterSweep.Policy.ROUND_ROBIN;
+        } else if (selectedAlgorithm.contains("MLFQ")) {
+            policy = ParameterSweep.Policy.MLFQ;
+        } else {
+            JOptionPane.showMessageDialog(this, "Parameter tuning applies to Round Robin and MLFQ.", "Tune Parameters", JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
         
-        scheduler.calculateAverages();
-        resultsOutput.append("-".repeat(80)).append("\n");
-        resultsOutput.append(String.format("%-10s %-12s %-10s %-12s %-12.2f %-12.2f%n",
-                         "", "", "", "AVERAGE:", scheduler.avgTurnaroundTime, scheduler.avgResponseTime));
+        int[] quanta = spinnerRange(timeQuantumSpinner);
+        int[] allotments = policy == ParameterSweep.Policy.MLFQ ? spinnerRange(allotmentTimeSpinner) : new int[]{1};
+        int[] levels = policy == ParameterSweep.Policy.MLFQ ? new int[]{4} : new int[]{1};
         
-        // Update the results area
-        resultsArea.setText(resultsOutput.toString());
+        ProcessTable workload = ProcessTable.fromProcesses(processes);
+        List<ParameterSweep.SweepPoint> points = ParameterSweep.grid(policy, quanta, allotments, levels);
+        ParameterSweep sweep = new ParameterSweep();
+        long totalWork = ParameterSweep.getTotalWork(workload, points);
+        stopAnimation();
+        startProgress(sweep::cancel, sweep::getCompletedWork, totalWork,
+                () -> String.format("Tuning: %d of %d points done", sweep.getCompletedPoints(), points.size()));
+        
+        SwingWorker<List<ParameterSweep.SweepResult>, Void> worker = new SwingWorker<List<ParameterSweep.SweepResult>, Void>() {
+            @Override
+            protected List<ParameterSweep.SweepResult> doInBackground() {
+                return sweep.run(workload, points);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    List<ParameterSweep.SweepResult> results = get();
+                    ParameterSweep.SweepResult best = ParameterSweep.best(results, ParameterSweep.Objective.TURNAROUND);
+                    finishProgress(String.format("Tuned %d points", results.size()), true);
+                    
+                    timeQuantumSpinner.setValue(best.point.timeQuantum);
+                    if (policy == ParameterSweep.Policy.MLFQ) {
+                        allotmentTimeSpinner.setValue(best.point.allotmentTime);
+                    }
+                    
+                    StringBuilder resultsOutput = new StringBuilder();
+                    resultsOutput.append("PARAMETER SWEEP (").append(results.size()).append(" points):\n");
+                    resultsOutput.append("-".repeat(70)).append("\n");
+                    resultsOutput.append(ParameterSweep.formatResults(results));
+                    resultsOutput.append("-".repeat(70)).append("\n");
+                    resultsOutput.append(String.format("BEST AVERAGE TURNAROUND: %s (%.2f, response %.2f)%n",
+                                     best.point, best.avgTurnaroundTime, best.avgResponseTime));
+                    resultsArea.setText(resultsOutput.toString());
+                    resultsArea.setCaretPosition(0);
+                    
+                    JTabbedPane tabbedPane = findTabbedPane();
+                    if (tabbedPane != null) {
+                        tabbedPane.setSelectedIndex(1); // Switch to Process Details tab
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof CancellationException) {
+                        finishProgress("Tuning cancelled", false);
+                    } else {
+                        finishProgress("Failed", false);
+                        JOptionPane.showMessageDialog(CPUSimulator.this, "Error tuning parameters: " + ex.getCause().getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        };
+        simulationExecutor.execute(worker);
+    }
+    
+    private int[] spinnerRange(JSpinner spinner) {
+        SpinnerNumberModel model = (SpinnerNumberModel) spinner.getModel();
+        int min = ((Number) model.getMinimum()).intValue();
+        int max = ((Number) model.getMaximum()).intValue();
+        int[] values = new int[max - min + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = min + i;
+        }
+        return values;
+    }
+    
+    // Builds the summary text; safe to call off the EDT once the scheduler has finished. Per-process rows
+    // are not formatted here, the results table reads them on demand
+    private static String formatResults(Scheduler scheduler) {
+        SchedulingMetrics metrics = scheduler.getMetrics();
+        StringBuilder resultsOutput = new StringBuilder();
+        resultsOutput.append(String.format("PROCESSES: %d, AVERAGE TURNAROUND: %.2f, AVERAGE RESPONSE: %.2f%n",
+                         metrics.getCompleted(), metrics.getTurnaround().getMean(), metrics.getResponse().getMean()));
+        resultsOutput.append("\nSUMMARY:\n");
+        resultsOutput.append("-".repeat(66)).append("\n");
+        resultsOutput.append(metrics.format(1));
+        return resultsOutput.toString();
+    }
+    
+    private void sortResults(int column) {
+        resultsModel.sortBy(column);
+        updateResultsHeaders();
+    }
+    
+    // Marks the sort column with an arrow
+    private void updateResultsHeaders() {
+        for (int i = 0; i < resultsModel.getColumnCount(); i++) {
+            String name = resultsModel.getColumnName(i);
+            if (i == resultsModel.getSortColumn()) {
+                name += resultsModel.isAscending() ? " \u25B2" : " \u25BC";
+            }
+            resultsTable.getColumnModel().getColumn(resultsTable.convertColumnIndexToView(i)).setHeaderValue(name);
+        }
+        resultsTable.getTableHeader().repaint();
+    }
+    
+    private void displayResults(Scheduler scheduler, String resultsText) {
+        // Update the 3D Gantt chart
+        ganttChart3D.updateGanttChart(scheduler.getTimeline());
+        closeTrace(openTrace);
+        lastScheduler = scheduler;
+        saveTraceBtn.setEnabled(true);
+        
+        // Update the results table and summary
+        resultsModel.setProcessTable(scheduler.getProcessTable());
+        updateResultsHeaders();
+        resultsArea.setText(resultsText);
+        resultsArea.setCaretPosition(0);
         
         // Automatically switch to Gantt Chart tab
         JTabbedPane tabbedPane = findTabbedPane();
@@ -547,7 +951,126 @@ public class CPUSimulator extends JFrame {
         }
         
         // Animate the Gantt chart based on simulation speed
-        animateGanttChart(scheduler.ganttChart);
+        animateGanttCharts(new GanttChart3D[]{ganttChart3D}, new Timeline[]{scheduler.getTimeline()});
+    }
+    
+    private void displayComparison(AlgorithmComparison comparison, String comparisonText) {
+        comparisonArea.setText(comparisonText);
+        comparisonArea.setCaretPosition(0);
+        
+        List<AlgorithmComparison.Algorithm> algorithms = AlgorithmComparison.getAlgorithms();
+        Timeline[] timelines = new Timeline[algorithms.size()];
+        for (int i = 0; i < timelines.length; i++) {
+            timelines[i] = comparison.getScheduler(algorithms.get(i)).getTimeline();
+        }
+        
+        JTabbedPane tabbedPane = findTabbedPane();
+        if (tabbedPane != null) {
+            tabbedPane.setSelectedIndex(2); // Switch to Comparison tab
+        }
+        
+        // Play all charts off the same clock so the algorithms can be compared at any point in time
+        animateGanttCharts(comparisonCharts, timelines);
+    }
+    
+    // Writes the last run's process table and timeline to a trace file on the simulation thread
+    private void saveTrace() {
+        if (lastScheduler == null || cancelRunning != null) {
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("schedule.trace"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
+        if (openTrace != null && openTrace.getPath().toAbsolutePath().equals(path.toAbsolutePath())) {
+            // The open trace is mapped, so it must not be rewritten underneath the chart
+            ganttChart3D.updateGanttChart(new Timeline());
+            closeTrace(openTrace);
+        }
+        
+        Scheduler scheduler = lastScheduler;
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                ScheduleTraceWriter.write(scheduler, path);
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    progressBar.setString("Saved trace " + path.getFileName());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(CPUSimulator.this, "Error saving trace: " + ex.getCause().getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        simulationExecutor.execute(worker);
+    }
+    
+    // Opening only reads the header and block index; the chart maps the segments it shows as it is scrolled
+    private void openTraceFile() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        ScheduleTrace trace;
+        try {
+            trace = ScheduleTrace.open(chooser.getSelectedFile().toPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Error opening trace: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        stopAnimation();
+        ScheduleTrace previous = openTrace;
+        openTrace = trace;
+        ganttChart3D.showTrace(trace);
+        closeTrace(previous);
+        
+        resultsModel.setProcessTable(null);
+        updateResultsHeaders();
+        resultsArea.setText(String.format("Trace %s%n%d processes, %d segments, time %d-%d%n",
+                trace.getPath().getFileName(), trace.getProcessCount(), trace.getSegmentCount(),
+                trace.getStartTime(), trace.getEndTime()));
+        resultsArea.setCaretPosition(0);
+        
+        JTabbedPane tabbedPane = findTabbedPane();
+        if (tabbedPane != null) {
+            tabbedPane.setSelectedIndex(0);
+        }
+    }
+    
+    // Call once the chart no longer shows the trace
+    private void closeTrace(ScheduleTrace trace) {
+        if (trace == null) {
+            return;
+        }
+        if (trace == openTrace) {
+            openTrace = null;
+        }
+        try {
+            trace.close();
+        } catch (IOException ex) {
+            // Opened read-only, so nothing is lost
+        }
+    }
+    
+    // The scroll bar spans the whole run or trace and its thumb covers the time units in view; it is only
+    // shown while the chart is zoomed in or the trace is too long to show at once
+    private void updateGanttScrollBar() {
+        int start = ganttChart3D.getRunStart();
+        int span = ganttChart3D.getRunEnd() - start;
+        int extent = Math.max(1, Math.min(ganttChart3D.getVisibleUnits(), span));
+        ganttScrollBar.setVisible(extent < span);
+        ganttScrollBar.setValues(ganttChart3D.getViewStart(), extent, start, Math.max(start + extent, start + span));
+        ganttScrollBar.setBlockIncrement(Math.max(1, extent - 1));
     }
     
     private JTabbedPane findTabbedPane() {
@@ -577,33 +1100,53 @@ public class CPUSimulator extends JFrame {
         return null;
     }
     
-    private void animateGanttChart(List<String> ganttChart) {
-        int speed = simulationSpeedSlider.getValue();
-        int delay = (11 - speed) * 100; // Faster speed = less delay
+    // charts[i] plays timelines[i]; all of them advance together
+    private void animateGanttCharts(GanttChart3D[] charts, Timeline[] timelines) {
+        // Replace whatever animation is still running
+        animationTimer.stop();
+        
+        int endTime = 0;
+        for (Timeline timeline : timelines) {
+            endTime = Math.max(endTime, timeline.getEndTime());
+        }
         
-        // Create a timer to animate the Gantt chart
-        Timer timer = new Timer(delay, new ActionListener() {
-            int currentIndex = 0;
-            
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (currentIndex < ganttChart.size()) {
-                    // Update Gantt chart progressively
-                    List<String> partialChart = ganttChart.subList(0, currentIndex + 1);
-                    ganttChart3D.updateGanttChart(partialChart);
-                    currentIndex++;
-                } else {
-                    // Animation complete
-                    ((Timer) e.getSource()).stop();
-                    // Show final result
-                    ganttChart3D.updateGanttChart(ganttChart);
-                }
-            }
-        });
+        // Speed 1-10 reveals 1-10 time units per second as before, but never takes longer than
+        // 2-20 seconds in total, so playback length is bounded however long the timeline is
+        int speed = simulationSpeedSlider.getValue();
+        double ticksPerSecond = 1000.0 / ((11 - speed) * 100);
+        double maxSeconds = 2.0 * (11 - speed);
+        animationTicksPerSecond = Math.max(ticksPerSecond, endTime / maxSeconds);
+        animatedCharts = charts;
+        animatedEndTime = endTime;
+        animationStartNanos = System.nanoTime();
+        
+        // Start with empty charts
+        for (int i = 0; i < charts.length; i++) {
+            charts[i].updateGanttChart(timelines[i], 0);
+        }
+        animationTimer.start();
+    }
+    
+    private void stopAnimation() {
+        animationTimer.stop();
+        animatedCharts = null;
+    }
+    
+    private void animationFrame() {
+        if (animatedCharts == null) {
+            animationTimer.stop();
+            return;
+        }
+        double elapsedSeconds = (System.nanoTime() - animationStartNanos) / 1e9;
+        int visibleTime = (int) Math.min(animatedEndTime, elapsedSeconds * animationTicksPerSecond);
         
-        // Start with empty chart
-        ganttChart3D.updateGanttChart(new ArrayList<>());
-        timer.start();
+        // Push only the newly revealed time range; each chart repaints just that region
+        for (GanttChart3D chart : animatedCharts) {
+            chart.revealTo(visibleTime);
+        }
+        if (visibleTime >= animatedEndTime) {
+            stopAnimation();
+        }
     }
     
     public static void main(String[] args) {
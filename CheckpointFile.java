@@ -0,0 +1,102 @@
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.zip.*;
+
+// File format for scheduler checkpoints: "CPCK" magic and a version, then a deflate-compressed body that
+// the scheduler writes field by field. Int columns are stored as zigzag varints of the difference to the
+// previous value, which keeps sorted and slowly changing columns to a byte or two per entry before
+// compression. A checkpoint goes to a temporary file that is synced and then moved over the old one, so
+// a crash while writing leaves the previous checkpoint intact.
+public class CheckpointFile {
+    public static final int MAGIC = 0x4350434B;
+    public static final int VERSION = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    public static void write(Path path, Body body) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream file = Channels.newOutputStream(channel);
+            DataOutputStream header = new DataOutputStream(file);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.flush();
+
+            DeflaterOutputStream compressed = new DeflaterOutputStream(file, deflater, BUFFER_SIZE);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(compressed, BUFFER_SIZE));
+            body.write(out);
+            out.flush();
+            compressed.finish();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        } finally {
+            deflater.end();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Opens the checkpoint body for reading; the caller closes it
+    public static DataInputStream open(Path path) throws IOException {
+        InputStream file = Files.newInputStream(path);
+        try {
+            DataInputStream header = new DataInputStream(file);
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Not a scheduler checkpoint: " + path);
+            }
+            int version = header.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + ": " + path);
+            }
+            return new DataInputStream(new BufferedInputStream(new InflaterInputStream(file), BUFFER_SIZE));
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public static void writeInts(DataOutput out, int[] values, int from, int count) throws IOException {
+        byte[] chunk = new byte[BUFFER_SIZE];
+        int length = 0;
+        int previous = 0;
+        for (int i = from; i < from + count; i++) {
+            if (length > chunk.length - 5) {
+                out.write(chunk, 0, length);
+                length = 0;
+            }
+            int delta = values[i] - previous;
+            int value = (delta << 1) ^ (delta >> 31);
+            while ((value & ~0x7F) != 0) {
+                chunk[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            chunk[length++] = (byte) value;
+            previous = values[i];
+        }
+        out.write(chunk, 0, length);
+    }
+
+    public static void readInts(DataInput in, int[] values, int from, int count) throws IOException {
+        int previous = 0;
+        for (int i = from; i < from + count; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.readByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += (value >>> 1) ^ -(value & 1);
+            values[i] = previous;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+// Writes scheduling results through one large buffer. The Gantt chart is printed as one [start-end label]
+// range per timeline segment instead of one cell per tick, and long charts and process lists are cut down
+// to their first and last entries (or paged), so printing a big run doesn't take longer than scheduling it.
+public class ConsoleReporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int LINE_WIDTH = 100;
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+    private static final int PREVIEW_ROWS = 20;
+
+    private int maxGanttSegments = 400;
+    private int maxProcessRows = 200;
+    private int pageLines = 0;                   // 0 prints without pausing
+    private BooleanSupplier nextPage = () -> true; // Asked after each page; false ends the output there
+    private boolean truncated;
+
+    // Setters
+    public void setMaxGanttSegments(int maxGanttSegments) { this.maxGanttSegments = Math.max(2, maxGanttSegments); }
+    public void setMaxProcessRows(int maxProcessRows) { this.maxProcessRows = Math.max(2, maxProcessRows); }
+
+    public void setPaging(int pageLines, BooleanSupplier nextPage) {
+        this.pageLines = Math.max(0, pageLines);
+        this.nextPage = nextPage;
+    }
+
+    // Whether the last print left anything out, by cutting a list down or stopping at a page prompt;
+    // writeReport always writes everything
+    public boolean isTruncated() { return truncated; }
+
+    public void print(Scheduler scheduler) {
+        truncated = false;
+        Writer out = consoleWriter();
+        try {
+            writeResults(out, scheduler, maxGanttSegments, maxProcessRows);
+            finish(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Large workloads (traces, generated loads) list only their first rows and a one-line summary
+    public void printProcessList(ProcessTable table) {
+        truncated = false;
+        Writer out = consoleWriter();
+        try {
+            out.write("\nPROCESS LIST:\n");
+            out.write("-".repeat(40) + "\n");
+            out.write(String.format("%-10s %-12s %-10s%n", "Process", "Arrival", "Burst"));
+            out.write("-".repeat(40) + "\n");
+            int rows = table.size();
+            int listed = rows > maxProcessRows ? PREVIEW_ROWS : rows;
+            for (int row = 0; row < listed; row++) {
+                cell(out, "P" + table.getProcessId(row), 10, ' ');
+                cell(out, Integer.toString(table.getArrivalTime(row)), 12, ' ');
+                cell(out, Integer.toString(table.getBurstTime(row)), 10, '\n');
+            }
+            if (listed < rows) {
+                skip(out, rows - listed, rows);
+                long totalBurst = 0;
+                int lastArrival = 0;
+                for (int row = 0; row < rows; row++) {
+                    totalBurst += table.getBurstTime(row);
+                    lastArrival = Math.max(lastArrival, table.getArrivalTime(row));
+                }
+                out.write(String.format("%d processes, arrivals up to %d, total burst %d%n", rows, lastArrival, totalBurst));
+            }
+            out.write('\n');
+            finish(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Metrics side by side, then each algorithm's Gantt chart under its name
+    public void printComparison(AlgorithmComparison comparison) {
+        truncated = false;
+        Writer out = consoleWriter();
+        try {
+            out.write("\n" + "=".repeat(60) + "\n");
+            out.write("ALGORITHM COMPARISON\n");
+            out.write("=".repeat(60) + "\n\n");
+            out.write(comparison.format());
+
+            out.write("\nGANTT CHARTS:\n");
+            out.write("-".repeat(60) + "\n");
+            for (AlgorithmComparison.Algorithm algorithm : AlgorithmComparison.getAlgorithms()) {
+                out.write(algorithm.getShortName() + ":\n");
+                writeTimeline(out, comparison.getScheduler(algorithm).getTimeline(), maxGanttSegments);
+            }
+            finish(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One Gantt chart per core, then the processes, per-core statistics and the combined metrics
+    public void print(MultiCoreSimulator simulator) {
+        truncated = false;
+        Writer out = consoleWriter();
+        try {
+            writeResults(out, simulator, maxGanttSegments, maxProcessRows);
+            finish(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Full, untruncated report written through a FileChannel
+    public void writeReport(Path path, Scheduler scheduler) throws IOException {
+        try (Writer out = fileWriter(path)) {
+            writeResults(out, scheduler, UNLIMITED, UNLIMITED);
+        }
+    }
+
+    public void writeReport(Path path, MultiCoreSimulator simulator) throws IOException {
+        try (Writer out = fileWriter(path)) {
+            writeResults(out, simulator, UNLIMITED, UNLIMITED);
+        }
+    }
+
+    // Closing the writer closes the channel
+    private static Writer fileWriter(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // System.out is flushed but never closed
+    private Writer consoleWriter() {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE);
+        return pageLines > 0 ? new PagingWriter(out, pageLines, nextPage) : out;
+    }
+
+    // Stopping at a page prompt leaves the rest out, just like a cut-down list
+    private void finish(Writer out) throws IOException {
+        out.flush();
+        if (out instanceof PagingWriter && ((PagingWriter) out).stopped) {
+            truncated = true;
+        }
+    }
+
+    private void writeResults(Writer out, Scheduler scheduler, int maxSegments, int maxRows) throws IOException {
+        out.write("\n" + "=".repeat(60) + "\n");
+        out.write("SCHEDULING RESULTS\n");
+        out.write("=".repeat(60) + "\n");
+
+        out.write("\n" + scheduler.getGanttChartTitle() + "\n");
+        out.write("-".repeat(60) + "\n");
+        writeTimeline(out, scheduler.getTimeline(), maxSegments);
+
+        writeProcessDetails(out, scheduler.getProcessTable(), maxRows);
+
+        SchedulingMetrics metrics = scheduler.getMetrics();
+        out.write("-".repeat(80) + "\n");
+        out.write(String.format("%-10s %-12s %-10s %-12s %-12.2f %-12.2f%n",
+                "", "", "", "AVERAGE:", metrics.getTurnaround().getMean(), metrics.getResponse().getMean()));
+
+        out.write("\nSUMMARY:\n");
+        out.write("-".repeat(66) + "\n");
+        out.write(metrics.format(1));
+    }
+
+    private void writeResults(Writer out, MultiCoreSimulator simulator, int maxSegments, int maxRows) throws IOException {
+        int cores = simulator.getCoreCount();
+        out.write("\n" + "=".repeat(60) + "\n");
+        out.write("MULTI-CORE SCHEDULING RESULTS (" + simulator.getPolicy() + ", " + cores + " cores)\n");
+        out.write("Placement: " + simulator.getPlacement() + ", Balancing: " + simulator.getBalancing() + "\n");
+        out.write("=".repeat(60) + "\n");
+
+        out.write("\nPER-CORE TIMELINES:\n");
+        out.write("-".repeat(60) + "\n");
+        for (int core = 0; core < cores; core++) {
+            out.write("CPU" + core + ":\n");
+            writeTimeline(out, simulator.getCoreTimeline(core), maxSegments);
+        }
+
+        writeProcessDetails(out, simulator.getProcessTable(), maxRows);
+
+        int makespan = simulator.getMakespan();
+        out.write("\nPER-CORE STATISTICS:\n");
+        out.write("-".repeat(60) + "\n");
+        out.write(String.format("%-8s %-12s %-12s %-12s%n", "Core", "Completed", "Migrations", "Utilization"));
+        for (int core = 0; core < cores; core++) {
+            double utilization = makespan == 0 ? 0 : 100.0 * simulator.getCoreBusyTime(core) / makespan;
+            out.write(String.format("%-8s %-12d %-12d %-12s%n", "CPU" + core, simulator.getCoreCompleted(core),
+                    simulator.getCoreMigrations(core), String.format("%.1f%%", utilization)));
+        }
+        out.write("-".repeat(60) + "\n");
+        out.write(String.format("Makespan: %d, Migrations: %d%n", makespan, simulator.getMigrations()));
+
+        out.write("\nSUMMARY:\n");
+        out.write("-".repeat(66) + "\n");
+        out.write(simulator.getMetrics().format(cores));
+    }
+
+    // Timeline segments already collapse consecutive identical ticks, so each one is a single range
+    private void writeTimeline(Writer out, Timeline timeline, int maxSegments) throws IOException {
+        StringBuilder line = new StringBuilder(LINE_WIDTH + 32);
+        int segments = timeline.segmentCount();
+        for (int s = 0; s < segments; s++) {
+            if (segments > maxSegments && s == maxSegments / 2) {
+                flushLine(out, line);
+                int resume = segments - (maxSegments - maxSegments / 2);
+                out.write(String.format("... %d segments omitted (time %d-%d) ...%n",
+                        resume - s, timeline.getStart(s), timeline.getStart(resume)));
+                truncated = true;
+                s = resume;
+            }
+            String range = "[" + timeline.getStart(s) + "-" + timeline.getEnd(s) + " " + timeline.getLabel(s) + "]";
+            if (line.length() > 0 && line.length() + 1 + range.length() > LINE_WIDTH) {
+                flushLine(out, line);
+            }
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(range);
+        }
+        flushLine(out, line);
+    }
+
+    private void writeProcessDetails(Writer out, ProcessTable table, int maxRows) throws IOException {
+        out.write("\nPROCESS DETAILS:\n");
+        out.write("-".repeat(80) + "\n");
+        out.write(String.format("%-10s %-12s %-10s %-12s %-12s %-12s%n",
+                "Process", "Arrival", "Burst", "Completion", "Turnaround", "Response"));
+        out.write("-".repeat(80) + "\n");
+
+        int rows = table.size();
+        for (int row = 0; row < rows; row++) {
+            if (rows > maxRows && row == maxRows / 2) {
+                row = skip(out, rows - maxRows, rows - (maxRows - maxRows / 2));
+            }
+            cell(out, "P" + table.getProcessId(row), 10, ' ');
+            cell(out, Integer.toString(table.getArrivalTime(row)), 12, ' ');
+            cell(out, Integer.toString(table.getBurstTime(row)), 10, ' ');
+            cell(out, Integer.toString(table.getCompletionTime(row)), 12, ' ');
+            cell(out, Integer.toString(table.getTurnaroundTime(row)), 12, ' ');
+            cell(out, Integer.toString(table.getResponseTime(row)), 12, '\n');
+        }
+    }
+
+    // Returns the row to continue from
+    private int skip(Writer out, int count, int resume) throws IOException {
+        out.write(String.format("... %d processes omitted ...%n", count));
+        truncated = true;
+        return resume;
+    }
+
+    // Same layout as a "%-<width>s" format field followed by the separator, without parsing a format per cell
+    private static void cell(Writer out, String text, int width, char separator) throws IOException {
+        out.write(text);
+        for (int i = text.length(); i < width; i++) {
+            out.write(' ');
+        }
+        out.write(separator);
+    }
+
+    private static void flushLine(Writer out, StringBuilder line) throws IOException {
+        if (line.length() > 0) {
+            out.append(line).write('\n');
+            line.setLength(0);
+        }
+    }
+
+    // Pauses after every pageLines lines; once nextPage says no, the rest of the output is dropped
+    private static class PagingWriter extends Writer {
+        private final Writer out;
+        private final int pageLines;
+        private final BooleanSupplier nextPage;
+        private int lines;
+        private boolean stopped;
+
+        PagingWriter(Writer out, int pageLines, BooleanSupplier nextPage) {
+            this.out = out;
+            this.pageLines = pageLines;
+            this.nextPage = nextPage;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            int start = offset;
+            int end = offset + length;
+            for (int i = offset; i < end && !stopped; i++) {
+                if (buffer[i] == '\n' && ++lines % pageLines == 0) {
+                    out.write(buffer, start, i + 1 - start);
+                    start = i + 1;
+                    out.flush();
+                    stopped = !nextPage.getAsBoolean();
+                }
+            }
+            if (!stopped && start < end) {
+                out.write(buffer, start, end - start);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
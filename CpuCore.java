@@ -0,0 +1,230 @@
+import java.io.*;
+import java.util.function.IntConsumer;
+
+// One simulated CPU: runs the processes assigned to it under its own policy and records its own timeline.
+// A core only touches its own state and the table rows it currently owns, so cores can be advanced
+// on different threads between sync points.
+//
+// This is the discrete-event kernel behind every scheduler: the single-CPU Scheduler subclasses, each core
+// of MultiCoreSimulator and OnlineSimulator all run their policy through advance(). On one CPU the event
+// calendar is just two entries, the next assigned arrival (the head of incoming, already in time order)
+// and the end of the running slice, which is a quantum expiry or a completion. advance() jumps from one
+// to the next, so idle gaps and long slices cost one step however long they are.
+public class CpuCore {
+    private final int coreId;
+    private final ProcessTable table;
+    private SchedulingPolicy policy;
+    private boolean preemptive;            // policy.isPreemptive(), asked once instead of on every step
+    private final int[] lastCore;          // Shared, indexed by row: core that last ran the process; null on a lone CPU
+    private final IntRingBuffer incoming;  // Assigned rows not yet admitted, in arrival order
+    private int nextArrivalTime = Integer.MAX_VALUE; // Arrival of incoming's head; MAX_VALUE when empty
+    private final Timeline timeline;
+    private final SchedulingMetrics metrics;
+    private IntConsumer completionListener; // Told each completed row, after its results are recorded
+    private Runnable safePoint;             // Run before every step, while the state above is complete
+
+    private int now;
+    private int running = -1;
+    private int sliceStart;
+    private int sliceEnd;
+    private int completed;
+    private int migrations;
+
+    public CpuCore(int coreId, ProcessTable table, SchedulingPolicy policy, int[] lastCore) {
+        this(coreId, table, policy, lastCore, new Timeline(), new SchedulingMetrics());
+    }
+
+    // Records into the given timeline and metrics, so an owner can keep them across runs
+    public CpuCore(int coreId, ProcessTable table, SchedulingPolicy policy, int[] lastCore,
+                   Timeline timeline, SchedulingMetrics metrics) {
+        this.coreId = coreId;
+        this.table = table;
+        this.policy = policy;
+        this.preemptive = policy != null && policy.isPreemptive();
+        this.lastCore = lastCore;
+        this.incoming = new IntRingBuffer(16);
+        this.timeline = timeline;
+        this.metrics = metrics;
+    }
+
+    public void setCompletionListener(IntConsumer completionListener) {
+        this.completionListener = completionListener;
+    }
+
+    public void setSafePoint(Runnable safePoint) {
+        this.safePoint = safePoint;
+    }
+
+    // Back to time 0 with nothing assigned, running the given (empty) policy; buffers are kept
+    public void reset(SchedulingPolicy policy) {
+        this.policy = policy;
+        this.preemptive = policy.isPreemptive();
+        policy.clear();
+        incoming.clear();
+        nextArrivalTime = Integer.MAX_VALUE;
+        timeline.clear();
+        metrics.clear();
+        now = 0;
+        running = -1;
+        sliceStart = 0;
+        sliceEnd = 0;
+        completed = 0;
+        migrations = 0;
+    }
+
+    // Rows must be assigned in non-decreasing arrival order
+    public void assign(int row) {
+        incoming.add(row);
+        if (incoming.size() == 1) {
+            nextArrivalTime = table.getArrivalTime(row);
+        }
+    }
+
+    public void assignAll(int[] rows, int from, int to) {
+        boolean wasEmpty = incoming.isEmpty();
+        incoming.addAll(rows, from, to);
+        if (wasEmpty && from < to) {
+            nextArrivalTime = table.getArrivalTime(rows[from]);
+        }
+    }
+
+    // A ready process taken from another core's queue
+    public void acceptMigrant(int row) {
+        policy.onArrival(row);
+    }
+
+    public int steal() {
+        return policy.steal();
+    }
+
+    // Run until the given time; a slice that would cross it is split and continues on the next call. Nothing
+    // is dispatched at the limit itself, so arrivals assigned there take part in that decision
+    public void advance(int limit) {
+        while (true) {
+            if (safePoint != null) {
+                safePoint.run();
+            }
+            if (running < 0) {
+                admitArrivals();
+                if (policy.size() == 0) {
+                    // Idle: wait for the next assigned arrival, or for the sync point
+                    if (nextArrivalTime < limit) {
+                        now = Math.max(now, nextArrivalTime);
+                        continue;
+                    }
+                    if (limit != Integer.MAX_VALUE) {
+                        now = Math.max(now, limit);
+                    }
+                    return;
+                }
+                if (now >= limit) {
+                    return;
+                }
+                dispatch(policy.pickNext());
+            }
+
+            int stop = Math.min(sliceEnd, limit);
+            if (preemptive) {
+                stop = Math.min(stop, Math.max(now, nextArrivalTime));
+            }
+            if (stop > now) {
+                int duration = stop - now;
+                timeline.append(table.getProcessId(running), policy.queueLevel(running), duration);
+                table.setRemainingTime(running, table.getRemainingTime(running) - duration);
+                metrics.recordBusy(duration);
+                now = stop;
+            }
+
+            if (now == sliceEnd) {
+                if (table.getRemainingTime(running) == 0) {
+                    table.setCompletionTime(running, now);
+                    metrics.recordCompletion(table.getArrivalTime(running), table.getBurstTime(running),
+                                             table.getStartTime(running), now);
+                    policy.onComplete(running);
+                    completed++;
+                    if (completionListener != null) {
+                        completionListener.accept(running);
+                    }
+                } else {
+                    policy.onQuantumExpired(running, now - sliceStart);
+                }
+                running = -1;
+            } else if (preemptive && nextArrivalTime <= now) {
+                admitArrivals();
+                if (policy.shouldPreempt(running)) {
+                    policy.onPreempted(running, now - sliceStart);
+                    running = -1;
+                }
+            } else if (now >= limit) {
+                return;
+            }
+        }
+    }
+
+    private void admitArrivals() {
+        while (nextArrivalTime <= now) {
+            policy.onArrival(incoming.poll());
+            nextArrivalTime = incoming.isEmpty() ? Integer.MAX_VALUE : table.getArrivalTime(incoming.peek());
+        }
+    }
+
+    private void dispatch(int row) {
+        if (timeline.getEndTime() < now) {
+            timeline.appendIdle(now - timeline.getEndTime());
+        }
+        if (!table.isStarted(row)) {
+            table.setStartTime(row, now);
+        }
+        if (lastCore != null) {
+            if (lastCore[row] >= 0 && lastCore[row] != coreId) {
+                migrations++;
+            }
+            lastCore[row] = coreId;
+        }
+        running = row;
+        sliceStart = now;
+        sliceEnd = now + Math.min(policy.timeSlice(row), table.getRemainingTime(row));
+    }
+
+    // Checkpoint support for the core and its policy; the timeline and metrics belong to the owner
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(now);
+        out.writeInt(running);
+        out.writeInt(sliceStart);
+        out.writeInt(sliceEnd);
+        out.writeInt(completed);
+        out.writeInt(migrations);
+        incoming.write(out);
+        policy.write(out);
+    }
+
+    public void read(DataInput in, SchedulingPolicy policy) throws IOException {
+        this.policy = policy;
+        this.preemptive = policy.isPreemptive();
+        now = in.readInt();
+        running = in.readInt();
+        sliceStart = in.readInt();
+        sliceEnd = in.readInt();
+        completed = in.readInt();
+        migrations = in.readInt();
+        if (running < -1 || running >= table.size() || completed < 0 || completed > table.size()) {
+            throw new IOException("Corrupt core state in checkpoint: running " + running + ", completed " + completed);
+        }
+        incoming.read(in);
+        nextArrivalTime = incoming.isEmpty() ? Integer.MAX_VALUE : table.getArrivalTime(incoming.peek());
+        policy.read(in);
+    }
+
+    // Getters
+    public int getTime() { return now; }
+    public int getCoreId() { return coreId; }
+    public Timeline getTimeline() { return timeline; }
+    public int getCompleted() { return completed; }
+    public int getMigrations() { return migrations; }
+    public long getBusyTime() { return metrics.getBusyTime(); }
+    public SchedulingMetrics getMetrics() { return metrics; }
+    public int getReadyCount() { return policy.size(); }
+    public int getNextArrivalTime() { return nextArrivalTime; }
+    public int getLoad() { return (running >= 0 ? 1 : 0) + policy.size() + incoming.size(); }
+    public boolean isIdle() { return running < 0 && policy.size() == 0 && incoming.isEmpty(); }
+}
@@ -0,0 +1,39 @@
+import java.io.*;
+
+public class FCFSPolicy implements SchedulingPolicy {
+    private final IntRingBuffer readyQueue;
+
+    public FCFSPolicy(int initialCapacity) {
+        this.readyQueue = new IntRingBuffer(initialCapacity);
+    }
+
+    @Override
+    public void onArrival(int row) {
+        readyQueue.add(row);
+    }
+
+    @Override
+    public int pickNext() {
+        return readyQueue.isEmpty() ? -1 : readyQueue.poll();
+    }
+
+    @Override
+    public int size() {
+        return readyQueue.size();
+    }
+
+    @Override
+    public void clear() {
+        readyQueue.clear();
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        readyQueue.write(out);
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        readyQueue.read(in);
+    }
+}
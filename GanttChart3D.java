@@ -1,10 +1,17 @@
 import javax.swing.*;
+import javax.swing.event.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.geom.*;
-import java.util.List;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 public class GanttChart3D extends JPanel {
-    private List<String> ganttChart;
+    private Timeline timeline;
     private int timeUnits;
     private Color[] processColors;
     private static final int BAR_HEIGHT = 40;
@@ -12,14 +19,101 @@ public class GanttChart3D extends JPanel {
     private static final int MARGIN = 50;
     private static final int TIME_LABEL_HEIGHT = 30;
     private static final int PROCESS_LABEL_WIDTH = 80;
+    private static final int LABEL_SPACING = 70;            // Pixels between time labels, at least
+    private static final double MAX_SCALE = 100;            // Pixels per time unit when fully zoomed in
+    private static final double ZOOM_STEP = 1.25;           // Per wheel notch
+    private static final int MAX_TRACE_UNITS = 1 << 20;     // Widest trace window read at once
     
-    public GanttChart3D(List<String> ganttChart) {
-        this.ganttChart = ganttChart;
-        this.timeUnits = ganttChart.size();
+    // Retained layers: grid, completed bars and legend are drawn once into chartCache and only the bar
+    // still growing during an animation is painted per frame. The layout is fixed by the view, so
+    // revealing more of the timeline never moves what is already drawn.
+    private BufferedImage chartCache;
+    private Timeline cachedTimeline;
+    private int cachedEndTime;
+    private int cachedSegments;      // Segments before this one are drawn into the cache
+    private int cachedLegendItems;
+    private int cachedVisibleTime;
+    private Set<String> legendLabels = new HashSet<>();
+    private int labelStep;
+    private int cachedOrigin;
+    private double cachedScale;
+    
+    // View: scale is in pixels per time unit and origin is the first time unit at the left edge. While
+    // fitted, the scale follows the width so the whole run is on screen; zooming in leaves it alone
+    private double scale;
+    private boolean fitted = true;
+    private int origin;
+    private int dragX;
+    private int dragOrigin;
+    
+    // When there are more segments in view than pixels, bars give way to columns drawn from the
+    // timeline's summary bins: a pixel wide (or a bin wide when bins are wider), each showing the process
+    // that ran the longest in it over the share of the column that was busy
+    private boolean binned;
+    private int columns;
+    private int[] columnX = new int[0];
+    private int[] columnEndX = new int[0];
+    private int[] columnStart = new int[0];
+    private int[] columnEnd = new int[0];
+    private int[] columnBusy = new int[0];
+    private int[] columnIds = new int[0];
+    private int[] columnLevels = new int[0];
+    private int[] columnTimes = new int[0];
+    
+    // Trace replay: only the window of the trace that is in view is read, off the EDT into spareWindow,
+    // which then swaps places with the shown traceWindow
+    private ScheduleTrace trace;
+    private Timeline traceWindow = new Timeline();
+    private Timeline spareWindow = new Timeline();
+    private boolean traceLoading; // A window read is in flight
+    private int loadedOrigin;     // Window last asked for
+    private int loadedUnits;
+    private String traceError;
+    
+    private int selectedProcess = Timeline.IDLE; // Process whose slices are outlined, IDLE for none
+    
+    public GanttChart3D(Timeline timeline) {
+        this.timeline = timeline;
+        this.timeUnits = timeline.getEndTime();
         initializeColors();
         setPreferredSize(new Dimension(800, 300));
         setBackground(new Color(20, 20, 20));
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        ToolTipManager.sharedInstance().registerComponent(this);
+        
+        // Ctrl+wheel zooms around the pointer, dragging pans and a double click fits the whole run again;
+        // the plain wheel is left to an enclosing scroll pane
+        MouseAdapter navigation = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+                dragOrigin = origin;
+            }
+            
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                moveTo(dragOrigin - (long) Math.floor((e.getX() - dragX) / scale));
+            }
+            
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown()) {
+                    zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX());
+                } else if (getParent() != null) {
+                    getParent().dispatchEvent(SwingUtilities.convertMouseEvent(GanttChart3D.this, e, getParent()));
+                }
+            }
+            
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    zoomToFit();
+                }
+            }
+        };
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
     }
     
     private void initializeColors() {
@@ -47,37 +141,331 @@ public class GanttChart3D extends JPanel {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         
-        if (ganttChart == null || ganttChart.isEmpty()) {
-            drawEmptyChart(g2d);
+        updateScale();
+        if (trace != null) {
+            requestTraceWindow();
+        }
+        if (traceError != null) {
+            drawEmptyChart(g2d, "Could not read trace: " + traceError);
+            return;
+        }
+        if (timeline == null || timeline.isEmpty() || timeUnits == 0) {
+            drawEmptyChart(g2d, traceLoading ? "Reading trace..." : "No simulation data available");
             return;
         }
         
-        // Calculate dimensions
-        int width = getWidth() - 2 * MARGIN;
-        int height = getHeight() - 2 * MARGIN;
-        int barWidth = Math.max(20, width / timeUnits);
-        
-        // Draw background grid
-        drawGrid(g2d, width, height, barWidth);
+        // Bring the cached layers up to the visible time, then draw what changes every frame on top;
+        // bars are kept out of the left margin when the view is panned
+        updateCache();
+        g2d.drawImage(chartCache, 0, 0, null);
+        Graphics2D bars = (Graphics2D) g2d.create();
+        bars.clipRect(MARGIN, 0, getWidth() - MARGIN, MARGIN + BAR_HEIGHT + 1);
+        if (binned) {
+            drawColumns(bars);
+        } else {
+            drawGrowingBar(bars);
+        }
+        drawSelection(bars);
+        bars.dispose();
+        drawTimeLabels(g2d);
+    }
+    
+    // Rebuilds the cache on resize, zoom, pan or when the timeline changes; otherwise only appends newly
+    // completed segments that are in view
+    private void updateCache() {
+        int endTime = timeline.getEndTime();
+        if (chartCache == null || chartCache.getWidth() != getWidth() || chartCache.getHeight() != getHeight()
+                || cachedTimeline != timeline || cachedEndTime != endTime || cachedOrigin != origin
+                || cachedScale != scale || timeUnits < cachedVisibleTime) {
+            rebuildCache(endTime);
+        }
         
-        // Draw 3D Gantt bars
-        draw3DGanttBars(g2d, width, height, barWidth);
+        Graphics2D g2d = chartCache.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        if (binned) {
+            // Columns are redrawn every frame from the bins, so only their legend entries go into the cache
+            layoutColumns();
+            for (int c = 0; c < columns; c++) {
+                if (columnBusy[c] > 0) {
+                    addLegendItem(g2d, columnIds[c], columnLevels[c]);
+                }
+            }
+        } else {
+            Graphics2D bars = (Graphics2D) g2d.create();
+            bars.clipRect(MARGIN, 0, getWidth() - MARGIN, MARGIN + BAR_HEIGHT + 1);
+            int to = Math.min(timeUnits, getViewEnd());
+            for (int s = cachedSegments; s < timeline.segmentCount() && timeline.getStart(s) < to; s++) {
+                if (!timeline.isIdle(s)) {
+                    addLegendItem(g2d, timeline.getProcessId(s), timeline.getQueueLevel(s));
+                }
+                if (timeline.getEnd(s) <= timeUnits) {
+                    draw3DBar(bars, s, timeline.getStart(s), timeline.getLength(s));
+                    cachedSegments = s + 1;
+                }
+            }
+            bars.dispose();
+        }
+        cachedVisibleTime = timeUnits;
+        g2d.dispose();
+    }
+    
+    private void rebuildCache(int endTime) {
+        int width = getWidth() - 2 * MARGIN;
+        labelStep = labelStep(LABEL_SPACING / scale);
+        cachedTimeline = timeline;
+        cachedEndTime = endTime;
+        cachedOrigin = origin;
+        cachedScale = scale;
+        cachedSegments = firstSegmentFrom(origin);
+        cachedLegendItems = 0;
+        cachedVisibleTime = 0;
+        legendLabels.clear();
+        
+        // Two lookups tell how many segments are in view without visiting them
+        binned = firstSegmentFrom(getViewEnd()) - cachedSegments > Math.max(1, width);
+        
+        chartCache = new BufferedImage(Math.max(1, getWidth()), Math.max(1, getHeight()), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = chartCache.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, chartCache.getWidth(), chartCache.getHeight());
+        drawGrid(g2d, width, endTime);
         
-        // Draw time labels
-        drawTimeLabels(g2d, width, height, barWidth);
+        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        g2d.setColor(new Color(173, 216, 230));
+        g2d.drawString("Process Legend:", MARGIN, MARGIN + BAR_HEIGHT + TIME_LABEL_HEIGHT + 30);
+        g2d.dispose();
+    }
+    
+    // The last visible segment while it is still being revealed
+    private void drawGrowingBar(Graphics2D g2d) {
+        int s = cachedSegments;
+        if (s < timeline.segmentCount() && timeline.getStart(s) < Math.min(timeUnits, getViewEnd())) {
+            draw3DBar(g2d, s, timeline.getStart(s), timeUnits - timeline.getStart(s));
+        }
+    }
+    
+    // Index of the first segment that ends after the time
+    private int firstSegmentFrom(int time) {
+        if (timeline.isEmpty() || time <= timeline.getStart(0)) {
+            return 0;
+        }
+        int segment = timeline.segmentAt(time);
+        return segment < 0 ? timeline.segmentCount() : segment;
+    }
+    
+    // Merges the bins in view into columns, one per pixel, at the level with bins no wider than a pixel.
+    // A bin goes to the column its start falls in, and a column is only drawn once its bins are revealed
+    private void layoutColumns() {
+        TimelineBins bins = timeline.getBins();
+        int level = bins.levelFor(1 / scale);
+        int to = getViewEnd();
+        columns = 0;
+        for (int bin = bins.binAt(level, origin); bin < bins.binCount(level); bin++) {
+            int start = bins.getBinStart(level, bin);
+            int end = bins.getBinEnd(level, bin);
+            if (start >= to || end > timeUnits) {
+                break;
+            }
+            int x = xOf(start);
+            int endX = Math.max(x + 1, xOf(end));
+            int c = columns - 1;
+            if (c < 0 || x >= columnEndX[c]) {
+                c = columns++;
+                if (c == columnX.length) {
+                    growColumns();
+                }
+                columnX[c] = x;
+                columnStart[c] = start;
+                columnBusy[c] = 0;
+                columnTimes[c] = 0;
+                columnIds[c] = Timeline.IDLE;
+                columnLevels[c] = Timeline.NO_LEVEL;
+            }
+            columnEndX[c] = endX;
+            columnEnd[c] = end;
+            columnBusy[c] += bins.getBusyTime(level, bin);
+            if (bins.getDominantTime(level, bin) > columnTimes[c]) {
+                columnTimes[c] = bins.getDominantTime(level, bin);
+                columnIds[c] = bins.getDominantId(level, bin);
+                columnLevels[c] = bins.getDominantLevel(level, bin);
+            }
+        }
+    }
+    
+    private void growColumns() {
+        int capacity = Math.max(64, columnX.length * 2);
+        columnX = Arrays.copyOf(columnX, capacity);
+        columnEndX = Arrays.copyOf(columnEndX, capacity);
+        columnStart = Arrays.copyOf(columnStart, capacity);
+        columnEnd = Arrays.copyOf(columnEnd, capacity);
+        columnBusy = Arrays.copyOf(columnBusy, capacity);
+        columnIds = Arrays.copyOf(columnIds, capacity);
+        columnLevels = Arrays.copyOf(columnLevels, capacity);
+        columnTimes = Arrays.copyOf(columnTimes, capacity);
+    }
+    
+    // The busy share of each column is filled from the bottom in its dominant process's color, the rest is idle
+    private void drawColumns(Graphics2D g2d) {
+        if (columns == 0) {
+            return;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        for (int c = 0; c < columns; c++) {
+            int width = columnEndX[c] - columnX[c];
+            int busyHeight = (int) Math.round((double) BAR_HEIGHT * columnBusy[c] / (columnEnd[c] - columnStart[c]));
+            if (busyHeight < BAR_HEIGHT) {
+                g2d.setColor(new Color(200, 200, 200));
+                g2d.fillRect(columnX[c], MARGIN, width, BAR_HEIGHT - busyHeight);
+            }
+            if (busyHeight > 0) {
+                g2d.setColor(getProcessColor(columnIds[c]));
+                g2d.fillRect(columnX[c], MARGIN + BAR_HEIGHT - busyHeight, width, busyHeight);
+            }
+        }
+        int x0 = Math.max(MARGIN - 2, columnX[0]);
+        int x1 = Math.min(getWidth() + 2, columnEndX[columns - 1]);
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(new BasicStroke(1));
+        g2d.drawRect(x0, MARGIN, x1 - x0, BAR_HEIGHT);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+    
+    // Outlines the selected process's slices that fall inside the repainted area, found through the
+    // timeline index rather than by walking every segment; slices sharing a pixel get one outline
+    private void drawSelection(Graphics2D g2d) {
+        if (selectedProcess == Timeline.IDLE) {
+            return;
+        }
+        Rectangle clip = g2d.getClipBounds();
+        int from = clip == null ? origin : timeAt(clip.x - BAR_DEPTH, origin);
+        int to = (int) Math.min(timeUnits, clip == null ? getViewEnd() : timeAt(clip.x + clip.width, getViewEnd()) + 1L);
+        
+        TimelineIndex index = timeline.getIndex();
+        int slices = index.sliceCount(selectedProcess);
+        g2d.setColor(new Color(255, 255, 255));
+        g2d.setStroke(new BasicStroke(3));
+        int lastX = Integer.MIN_VALUE;
+        int lastEndX = Integer.MIN_VALUE;
+        for (int n = index.nextSlice(selectedProcess, from); n < slices; n++) {
+            int segment = index.getSlice(selectedProcess, n);
+            int start = timeline.getStart(segment);
+            if (start >= to) {
+                break;
+            }
+            int x = Math.max(MARGIN - 2, xOf(start));
+            int endX = Math.min(getWidth() + 2, xOf(Math.min(timeline.getEnd(segment), timeUnits)));
+            if (x > lastEndX) {
+                if (lastEndX > Integer.MIN_VALUE) {
+                    g2d.drawRect(lastX, MARGIN, lastEndX - lastX, BAR_HEIGHT);
+                }
+                lastX = x;
+            }
+            lastEndX = Math.max(lastEndX, endX);
+        }
+        if (lastEndX > Integer.MIN_VALUE) {
+            g2d.drawRect(lastX, MARGIN, lastEndX - lastX, BAR_HEIGHT);
+        }
+    }
+    
+    // Time unit under the given x position, or -1 when it is off the bars or not yet revealed
+    public int timeAt(int x) {
+        if (timeline == null || scale == 0 || x < MARGIN) {
+            return -1;
+        }
+        int time = timeAt(x, -1);
+        return time < timeUnits ? time : -1;
+    }
+    
+    private int timeAt(int x, int outside) {
+        long time = origin + (long) Math.floor((x - MARGIN) / scale);
+        return time < Integer.MIN_VALUE || time > Integer.MAX_VALUE ? outside : (int) time;
+    }
+    
+    // Pixel column of the time's left edge, kept within a range the drawing code can add widths to
+    private int xOf(long time) {
+        double x = MARGIN + (time - origin) * scale;
+        return (int) Math.max(-(1 << 24), Math.min(1 << 24, Math.round(x)));
+    }
+    
+    // Hit-testing: the segment under the point, or -1
+    public int segmentAt(Point point) {
+        if (point.y < MARGIN - BAR_DEPTH || point.y > MARGIN + BAR_HEIGHT) {
+            return -1;
+        }
+        int time = timeAt(point.x);
+        return time < 0 ? -1 : timeline.segmentAt(time);
+    }
+    
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        if (binned) {
+            return columnToolTip(event.getPoint());
+        }
+        int segment = segmentAt(event.getPoint());
+        if (segment < 0) {
+            return null;
+        }
+        int start = timeline.getStart(segment);
+        int end = Math.min(timeline.getEnd(segment), timeUnits);
+        if (timeline.isIdle(segment)) {
+            return String.format("IDLE %d-%d", start, end);
+        }
         
-        // Draw legend
-        drawLegend(g2d, width, height);
+        // In a trace only the window on screen is loaded, so slices are counted within it
+        int processId = timeline.getProcessId(segment);
+        TimelineIndex index = timeline.getIndex();
+        return String.format("%s %d-%d, slice %d of %d%s, %d units on CPU", timeline.getLabel(segment), start, end,
+                index.sliceNumber(segment) + 1, index.sliceCount(processId), trace != null ? " in view" : "",
+                index.getRunTime(processId));
     }
     
-    private void drawEmptyChart(Graphics2D g2d) {
+    // Zoomed out, a column stands for many segments, so its tooltip sums them up
+    private String columnToolTip(Point point) {
+        if (point.y < MARGIN - BAR_DEPTH || point.y > MARGIN + BAR_HEIGHT || columns == 0) {
+            return null;
+        }
+        int low = 0;
+        int high = columns - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (columnX[mid] <= point.x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (point.x < columnX[low] || point.x >= columnEndX[low]) {
+            return null;
+        }
+        if (columnBusy[low] == 0) {
+            return String.format("IDLE %d-%d", columnStart[low], columnEnd[low]);
+        }
+        int span = columnEnd[low] - columnStart[low];
+        int idlePercent = (int) Math.round(100.0 * (span - columnBusy[low]) / span);
+        return String.format("%d-%d: mostly %s, %d%% idle", columnStart[low], columnEnd[low],
+                Timeline.label(columnIds[low], columnLevels[low]), idlePercent);
+    }
+    
+    // Outlines every slice of the process, or none for Timeline.IDLE
+    public void setSelectedProcess(int processId) {
+        if (processId != selectedProcess) {
+            selectedProcess = processId;
+            repaint();
+        }
+    }
+    
+    public int getSelectedProcess() { return selectedProcess; }
+    
+    private void drawEmptyChart(Graphics2D g2d, String message) {
         int width = getWidth();
         int height = getHeight();
         
         g2d.setColor(new Color(200, 200, 200));
         g2d.setFont(new Font("Arial", Font.ITALIC, 16));
         
-        String message = "No simulation data available";
         FontMetrics fm = g2d.getFontMetrics();
         int textWidth = fm.stringWidth(message);
         int x = (width - textWidth) / 2;
@@ -86,13 +474,16 @@ public class GanttChart3D extends JPanel {
         g2d.drawString(message, x, y);
     }
     
-    private void drawGrid(Graphics2D g2d, int width, int height, int barWidth) {
+    private void drawGrid(Graphics2D g2d, int width, int endTime) {
         g2d.setColor(new Color(173, 216, 230));
         g2d.setStroke(new BasicStroke(1));
         
-        // Draw vertical grid lines
-        for (int i = 0; i <= timeUnits; i++) {
-            int x = MARGIN + i * barWidth;
+        // Draw vertical grid lines across the part of the run in view: one per time unit while units are
+        // wide enough to tell apart, otherwise one per time label
+        int step = scale >= 4 ? 1 : labelStep;
+        long last = Math.min(endTime, getViewEnd());
+        for (long i = firstMultiple(origin, step); i <= last; i += step) {
+            int x = xOf(i);
             g2d.drawLine(x, MARGIN, x, MARGIN + BAR_HEIGHT);
         }
         
@@ -101,50 +492,19 @@ public class GanttChart3D extends JPanel {
         g2d.drawLine(MARGIN, MARGIN + BAR_HEIGHT, MARGIN + width, MARGIN + BAR_HEIGHT);
     }
     
-    private void draw3DGanttBars(Graphics2D g2d, int width, int height, int barWidth) {
-        // Group consecutive same processes
-        String currentProcess = null;
-        int startTime = 0;
-        int duration = 0;
-        
-        for (int i = 0; i < ganttChart.size(); i++) {
-            String process = ganttChart.get(i);
-            
-            if (currentProcess == null) {
-                currentProcess = process;
-                startTime = i;
-                duration = 1;
-            } else if (process.equals(currentProcess)) {
-                duration++;
-            } else {
-                // Draw the completed bar
-                draw3DBar(g2d, currentProcess, startTime, duration, barWidth);
-                
-                // Start new process
-                currentProcess = process;
-                startTime = i;
-                duration = 1;
-            }
-        }
-        
-        // Draw the last bar
-        if (currentProcess != null) {
-            draw3DBar(g2d, currentProcess, startTime, duration, barWidth);
-        }
-    }
-    
-    private void draw3DBar(Graphics2D g2d, String process, int startTime, int duration, int barWidth) {
-        if (process.equals("IDLE")) {
-            drawIdleBar(g2d, startTime, duration, barWidth);
+    // Bars are clipped to a little past the window, so a zoomed-in bar costs no more than one that fits
+    private void draw3DBar(Graphics2D g2d, int segment, int startTime, int duration) {
+        int x = Math.max(MARGIN - BAR_DEPTH - 2, xOf(startTime));
+        int width = Math.min(getWidth() + 2, xOf((long) startTime + duration)) - x;
+        if (timeline.isIdle(segment)) {
+            drawIdleBar(g2d, x, width);
             return;
         }
         
-        int x = MARGIN + startTime * barWidth;
         int y = MARGIN;
-        int width = duration * barWidth;
         
         // Get color for process
-        Color processColor = getProcessColor(process);
+        Color processColor = getProcessColor(timeline.getProcessId(segment));
         
         // Create 3D effect with gradient and shadow
         GradientPaint gradient = new GradientPaint(
@@ -175,12 +535,15 @@ public class GanttChart3D extends JPanel {
         g2d.setStroke(new BasicStroke(1));
         g2d.drawRect(x, y, width, BAR_HEIGHT);
         
-        // Draw process label
+        // Draw process label, if it fits
         g2d.setColor(Color.WHITE);
         g2d.setFont(new Font("Arial", Font.BOLD, 12));
         FontMetrics fm = g2d.getFontMetrics();
-        String label = process;
+        String label = timeline.getLabel(segment);
         int textWidth = fm.stringWidth(label);
+        if (textWidth + 4 > width) {
+            return;
+        }
         int textX = x + (width - textWidth) / 2;
         int textY = y + BAR_HEIGHT / 2 + fm.getAscent() / 2;
         
@@ -191,10 +554,8 @@ public class GanttChart3D extends JPanel {
         g2d.drawString(label, textX, textY);
     }
     
-    private void drawIdleBar(Graphics2D g2d, int startTime, int duration, int barWidth) {
-        int x = MARGIN + startTime * barWidth;
+    private void drawIdleBar(Graphics2D g2d, int x, int width) {
         int y = MARGIN;
-        int width = duration * barWidth;
         
         // Create striped pattern for idle time
         g2d.setColor(new Color(200, 200, 200));
@@ -212,95 +573,318 @@ public class GanttChart3D extends JPanel {
         g2d.setStroke(new BasicStroke(1));
         g2d.drawRect(x, y, width, BAR_HEIGHT);
         
-        // Draw "IDLE" label
+        // Draw "IDLE" label, if it fits
         g2d.setColor(Color.BLACK);
         g2d.setFont(new Font("Arial", Font.BOLD, 10));
         FontMetrics fm = g2d.getFontMetrics();
         String label = "IDLE";
         int textWidth = fm.stringWidth(label);
+        if (textWidth + 4 > width) {
+            return;
+        }
         int textX = x + (width - textWidth) / 2;
         int textY = y + BAR_HEIGHT / 2 + fm.getAscent() / 2;
         g2d.drawString(label, textX, textY);
     }
     
-    private void drawTimeLabels(Graphics2D g2d, int width, int height, int barWidth) {
+    private void drawTimeLabels(Graphics2D g2d) {
         g2d.setColor(new Color(173, 216, 230));
         g2d.setFont(new Font("Arial", Font.PLAIN, 10));
+        FontMetrics fm = g2d.getFontMetrics();
         
-        // Draw time labels below the chart
-        for (int i = 0; i <= timeUnits; i += Math.max(1, timeUnits / 10)) {
-            int x = MARGIN + i * barWidth;
+        // Draw time labels below the chart at round steps, only as far as the run is revealed
+        long last = Math.min(timeUnits, getViewEnd());
+        for (long i = firstMultiple(origin, labelStep); i <= last; i += labelStep) {
+            int x = xOf(i);
             int y = MARGIN + BAR_HEIGHT + TIME_LABEL_HEIGHT;
             
             String label = String.valueOf(i);
-            FontMetrics fm = g2d.getFontMetrics();
             int textWidth = fm.stringWidth(label);
             g2d.drawString(label, x - textWidth / 2, y);
         }
     }
     
-    private void drawLegend(Graphics2D g2d, int width, int height) {
-        // Get unique processes
-        java.util.Set<String> uniqueProcesses = new java.util.HashSet<>(ganttChart);
-        uniqueProcesses.remove("IDLE");
+    // Smallest 1, 2 or 5 times a power of ten that is at least the given number of time units
+    private static int labelStep(double units) {
+        long step = 1;
+        while (step < units && step < Integer.MAX_VALUE / 10) {
+            if (2 * step >= units) {
+                return (int) (2 * step);
+            }
+            if (5 * step >= units) {
+                return (int) (5 * step);
+            }
+            step *= 10;
+        }
+        return (int) step;
+    }
+    
+    private static long firstMultiple(int time, int step) {
+        return Math.floorDiv((long) time + step - 1, step) * step;
+    }
+    
+    // Legend entries appear in order of first appearance, so new ones are appended after the cached ones;
+    // once the panel is full, further entries are only remembered
+    private void addLegendItem(Graphics2D g2d, int processId, int queueLevel) {
+        String label = Timeline.label(processId, queueLevel);
+        if (!legendLabels.add(label)) {
+            return;
+        }
         
         int legendX = MARGIN;
         int legendY = MARGIN + BAR_HEIGHT + TIME_LABEL_HEIGHT + 40;
         int legendItemHeight = 20;
         int legendItemWidth = 100;
+        int x = legendX + (cachedLegendItems % 3) * legendItemWidth;
+        int y = legendY + (cachedLegendItems / 3) * legendItemHeight;
+        cachedLegendItems++;
+        if (y - 15 > getHeight()) {
+            return;
+        }
         
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        // Draw color box
+        Color processColor = getProcessColor(processId);
+        g2d.setColor(processColor);
+        g2d.fillRect(x, y - 15, 15, 15);
         g2d.setColor(new Color(173, 216, 230));
-        g2d.drawString("Process Legend:", legendX, legendY - 10);
+        g2d.drawRect(x, y - 15, 15, 15);
         
-        int itemCount = 0;
-        for (String process : uniqueProcesses) {
-            int x = legendX + (itemCount % 3) * legendItemWidth;
-            int y = legendY + (itemCount / 3) * legendItemHeight;
-            
-            // Draw color box
-            Color processColor = getProcessColor(process);
-            g2d.setColor(processColor);
-            g2d.fillRect(x, y - 15, 15, 15);
-            g2d.setColor(new Color(173, 216, 230));
-            g2d.drawRect(x, y - 15, 15, 15);
-            
-            // Draw process name
-            g2d.setColor(new Color(173, 216, 230));
-            g2d.drawString(process, x + 20, y - 3);
-            
-            itemCount++;
-        }
+        // Draw process name
+        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        g2d.setColor(new Color(173, 216, 230));
+        g2d.drawString(label, x + 20, y - 3);
     }
     
-    private Color getProcessColor(String process) {
-        if (process.equals("IDLE")) {
+    private Color getProcessColor(int processId) {
+        if (processId == Timeline.IDLE) {
             return new Color(200, 200, 200);
         }
         
-        // Extract process number for consistent coloring
-        try {
-            String processNum = process.replaceAll("[^0-9]", "");
-            if (!processNum.isEmpty()) {
-                int index = Integer.parseInt(processNum) % processColors.length;
-                return processColors[index];
+        // Use process number for consistent coloring across queue levels
+        return processColors[Math.floorMod(processId, processColors.length)];
+    }
+    
+    // First and last time of what is shown: the whole trace, or the timeline from time 0
+    public int getRunStart() {
+        return trace != null ? trace.getStartTime() : 0;
+    }
+    
+    public int getRunEnd() {
+        return trace != null ? trace.getEndTime() : timeline.getEndTime();
+    }
+    
+    // Fitted, the whole run spans the width; a trace is read a window at a time, so it is never zoomed
+    // out further than MAX_TRACE_UNITS
+    private double minScale() {
+        long span = Math.max(1, (long) getRunEnd() - getRunStart());
+        if (trace != null) {
+            span = Math.min(span, MAX_TRACE_UNITS);
+        }
+        return Math.max(1, getWidth() - 2 * MARGIN) / (double) span;
+    }
+    
+    private void updateScale() {
+        double min = minScale();
+        scale = fitted ? min : Math.max(min, Math.min(Math.max(MAX_SCALE, min), scale));
+        origin = clampOrigin(origin);
+    }
+    
+    private int clampOrigin(long time) {
+        long last = Math.max(getRunStart(), (long) getRunEnd() - visibleUnits());
+        return (int) Math.max(getRunStart(), Math.min(time, last));
+    }
+    
+    // Zooms by the factor, keeping the time under x where it is
+    public void zoom(double factor, int x) {
+        updateScale();
+        double min = minScale();
+        double newScale = Math.max(min, Math.min(Math.max(MAX_SCALE, min), scale * factor));
+        if (newScale == scale) {
+            return;
+        }
+        double anchor = origin + (x - MARGIN) / scale;
+        scale = newScale;
+        fitted = newScale <= min;
+        origin = clampOrigin((long) Math.floor(anchor - (x - MARGIN) / newScale));
+        viewChanged();
+    }
+    
+    public void zoomToFit() {
+        fitted = true;
+        origin = getRunStart();
+        updateScale();
+        viewChanged();
+    }
+    
+    // Replaces whatever is shown with a window onto the trace, starting at its first time unit. The caller
+    // keeps the trace open while it is shown
+    public void showTrace(ScheduleTrace trace) {
+        this.trace = trace;
+        traceWindow.clear(trace.getStartTime());
+        this.timeline = traceWindow;
+        this.timeUnits = 0;
+        origin = trace.getStartTime();
+        fitted = true;
+        loadedUnits = 0;
+        traceError = null;
+        viewChanged();
+    }
+    
+    // Pans so the view starts at the given time
+    public void scrollTo(int time) {
+        moveTo(time);
+    }
+    
+    private void moveTo(long time) {
+        updateScale();
+        int newOrigin = clampOrigin(time);
+        if (newOrigin != origin) {
+            origin = newOrigin;
+            viewChanged();
+        }
+    }
+    
+    // Time units that fit across the chart at the current scale
+    public int getVisibleUnits() {
+        updateScale();
+        return visibleUnits();
+    }
+    
+    private int visibleUnits() {
+        double units = Math.ceil(Math.max(1, getWidth() - 2 * MARGIN) / (scale > 0 ? scale : minScale()));
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, units));
+    }
+    
+    private int getViewEnd() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) origin + visibleUnits());
+    }
+    
+    public ScheduleTrace getTrace() { return trace; }
+    
+    public int getViewStart() {
+        updateScale();
+        return origin;
+    }
+    
+    // Notified when the view is zoomed, panned or shows something else
+    public void addChangeListener(ChangeListener listener) {
+        listenerList.add(ChangeListener.class, listener);
+    }
+    
+    private void viewChanged() {
+        ChangeEvent event = new ChangeEvent(this);
+        for (ChangeListener listener : listenerList.getListeners(ChangeListener.class)) {
+            listener.stateChanged(event);
+        }
+        repaint();
+    }
+    
+    // Starts reading the window in view when the chart was scrolled, zoomed or resized since the last
+    // read. The blocks are mapped and decoded on a worker thread and the chart keeps showing the previous
+    // window until the new one is swapped in; one read runs at a time, and when it lands the repaint asks
+    // for whatever is in view by then
+    private void requestTraceWindow() {
+        int units = visibleUnits();
+        if (traceLoading || (origin == loadedOrigin && units == loadedUnits)) {
+            return;
+        }
+        ScheduleTrace source = trace;
+        Timeline window = spareWindow;
+        int from = origin;
+        int to = (int) Math.min(Integer.MAX_VALUE, (long) origin + units);
+        traceLoading = true;
+        loadedOrigin = origin;
+        loadedUnits = units;
+        
+        SwingWorker<Void, Void> reader = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                source.readWindow(from, to, window);
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                traceLoading = false;
+                if (trace == source) {
+                    try {
+                        get();
+                        spareWindow = traceWindow;
+                        traceWindow = window;
+                        timeline = window;
+                        traceError = null;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                        // Corrupt blocks and mapping failures alike; the view shows the error until it moves
+                        traceError = String.valueOf(e.getCause().getMessage());
+                    }
+                    timeUnits = traceWindow.getEndTime();
+                    cachedTimeline = null;
+                }
+                repaint();
             }
-        } catch (NumberFormatException e) {
-            // Fall back to hash-based color
+        };
+        reader.execute();
+    }
+    
+    public void updateGanttChart(Timeline newTimeline) {
+        updateGanttChart(newTimeline, newTimeline.getEndTime());
+    }
+    
+    // Reveal more of the current timeline, repainting only the area that changes: the growing bar, the
+    // newly revealed bars and time labels, and the legend if a new process shows up
+    public void revealTo(int visibleTime) {
+        if (trace != null) {
+            return;
+        }
+        int oldTime = timeUnits;
+        int newTime = Math.min(visibleTime, timeline.getEndTime());
+        if (newTime == oldTime) {
+            return;
+        }
+        if (newTime < oldTime || chartCache == null || cachedTimeline != timeline
+                || chartCache.getWidth() != getWidth() || chartCache.getHeight() != getHeight()) {
+            updateGanttChart(timeline, newTime);
+            return;
         }
         
-        // Use hash-based color for processes without numbers
-        int hash = process.hashCode();
-        return new Color(
-            Math.abs(hash) % 200 + 55,
-            Math.abs(hash >> 8) % 200 + 55,
-            Math.abs(hash >> 16) % 200 + 55
-        );
+        // Columns take in whole bins and may show a new process anywhere, so they repaint across the view
+        boolean newLegendItem = binned;
+        int firstChanged = binned ? origin : cachedSegments < timeline.segmentCount() ? timeline.getStart(cachedSegments) : oldTime;
+        int to = Math.min(newTime, getViewEnd());
+        for (int s = cachedSegments; !binned && s < timeline.segmentCount() && timeline.getStart(s) < to; s++) {
+            newLegendItem |= !timeline.isIdle(s) && !legendLabels.contains(timeline.getLabel(s));
+        }
+        timeUnits = newTime;
+        
+        // Margins cover the bar's depth faces and time labels centred on their tick
+        int x0 = Math.max(0, xOf(firstChanged) - TIME_LABEL_HEIGHT);
+        int x1 = Math.min(getWidth(), xOf(newTime) + BAR_DEPTH + TIME_LABEL_HEIGHT);
+        if (x1 > x0) {
+            repaint(x0, 0, x1 - x0, MARGIN + BAR_HEIGHT + TIME_LABEL_HEIGHT + 5);
+        }
+        if (newLegendItem) {
+            int legendTop = MARGIN + BAR_HEIGHT + TIME_LABEL_HEIGHT + 20;
+            repaint(MARGIN, legendTop, 3 * 100, getHeight() - legendTop);
+        }
     }
     
-    public void updateGanttChart(List<String> newGanttChart) {
-        this.ganttChart = newGanttChart;
-        this.timeUnits = newGanttChart.size();
-        repaint();
+    // Show only the first visibleTime units of the timeline (used for animation); the cached layers are
+    // kept as long as the timeline is unchanged and the visible time doesn't move backwards. A different
+    // timeline is shown whole, as is anything after a trace
+    public void updateGanttChart(Timeline newTimeline, int visibleTime) {
+        boolean newView = trace != null || newTimeline != timeline;
+        this.trace = null;
+        this.traceError = null;
+        this.timeline = newTimeline;
+        this.timeUnits = Math.min(visibleTime, newTimeline.getEndTime());
+        if (newView) {
+            fitted = true;
+            origin = 0;
+            viewChanged();
+        } else {
+            repaint();
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,89 @@
+import java.io.*;
+import java.util.*;
+
+public class IntHeap {
+    // Orders two slot values; negative when a should come out of the heap first
+    public interface SlotComparator {
+        int compare(int a, int b);
+    }
+
+    private int[] heap;
+    private int size;
+    private final SlotComparator comparator;
+
+    public IntHeap(int initialCapacity, SlotComparator comparator) {
+        this.heap = new int[Math.max(1, initialCapacity)];
+        this.size = 0;
+        this.comparator = comparator;
+    }
+
+    public void add(int slot) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        int i = size++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (comparator.compare(slot, heap[parent]) >= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = slot;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    public int poll() {
+        int top = peek();
+        int last = heap[--size];
+        if (size > 0) {
+            // Sift down
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && comparator.compare(heap[right], heap[child]) < 0) {
+                    child = right;
+                }
+                if (comparator.compare(last, heap[child]) <= 0) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+        }
+        return top;
+    }
+
+    // Checkpoint support; the heap array is stored as is, so it comes back in exactly the same order
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        CheckpointFile.writeInts(out, heap, 0, size);
+    }
+
+    public void read(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt heap in checkpoint: " + count + " entries");
+        }
+        if (heap.length < count) {
+            heap = new int[count];
+        }
+        CheckpointFile.readInts(in, heap, 0, count);
+        size = count;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public void clear() { size = 0; }
+}
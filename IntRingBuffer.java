@@ -0,0 +1,88 @@
+import java.io.*;
+import java.util.*;
+
+public class IntRingBuffer {
+    private int[] buffer;
+    private int head;
+    private int size;
+
+    public IntRingBuffer(int initialCapacity) {
+        // Capacity is kept at a power of two so wrapping is a mask instead of a modulo
+        int capacity = Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1;
+        this.buffer = new int[capacity];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    public void add(int value) {
+        if (size == buffer.length) {
+            grow();
+        }
+        buffer[(head + size) & (buffer.length - 1)] = value;
+        size++;
+    }
+
+    public void addAll(int[] values, int from, int to) {
+        while (buffer.length - size < to - from) {
+            grow();
+        }
+        for (int i = from; i < to; i++) {
+            buffer[(head + size) & (buffer.length - 1)] = values[i];
+            size++;
+        }
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Ring buffer is empty");
+        }
+        return buffer[head];
+    }
+
+    public int poll() {
+        int value = peek();
+        head = (head + 1) & (buffer.length - 1);
+        size--;
+        return value;
+    }
+
+    private void grow() {
+        int[] larger = new int[buffer.length * 2];
+        int firstPart = buffer.length - head;
+        System.arraycopy(buffer, head, larger, 0, firstPart);
+        System.arraycopy(buffer, 0, larger, firstPart, head);
+        buffer = larger;
+        head = 0;
+    }
+
+    // Checkpoint support; values are stored in queue order
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = buffer[(head + i) & (buffer.length - 1)];
+        }
+        CheckpointFile.writeInts(out, values, 0, size);
+    }
+
+    public void read(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt queue in checkpoint: " + count + " entries");
+        }
+        clear();
+        while (buffer.length < count) {
+            grow();
+        }
+        CheckpointFile.readInts(in, buffer, 0, count);
+        size = count;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
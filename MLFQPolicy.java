@@ -0,0 +1,110 @@
+import java.io.*;
+
+public class MLFQPolicy implements SchedulingPolicy {
+    private final ProcessTable table;
+    private final int[] levelQuanta;
+    private final int allotmentTime;
+    private final IntRingBuffer[] priorityQueues;
+    private long nonEmptyQueues; // Bit i is set while queue i has processes
+    private int size;
+
+    // Level and used allotment live in the table, so they follow a process to whichever CPU runs it
+    public MLFQPolicy(ProcessTable table, int[] levelQuanta, int allotmentTime) {
+        if (levelQuanta.length < 1 || levelQuanta.length > MLFQScheduler.MAX_LEVELS) {
+            throw new IllegalArgumentException("MLFQ needs between 1 and " + MLFQScheduler.MAX_LEVELS + " levels, got " + levelQuanta.length);
+        }
+        this.table = table;
+        this.levelQuanta = levelQuanta.clone();
+        this.allotmentTime = allotmentTime;
+        this.priorityQueues = new IntRingBuffer[levelQuanta.length];
+        for (int i = 0; i < levelQuanta.length; i++) {
+            priorityQueues[i] = new IntRingBuffer(16);
+        }
+    }
+
+    // New arrivals start at level 0 with no allotment used; migrated processes keep their level
+    @Override
+    public void onArrival(int row) {
+        int level = table.getPriorityLevel(row);
+        priorityQueues[level].add(row);
+        nonEmptyQueues |= 1L << level;
+        size++;
+    }
+
+    @Override
+    public int pickNext() {
+        if (nonEmptyQueues == 0) {
+            return -1;
+        }
+        int level = Long.numberOfTrailingZeros(nonEmptyQueues);
+        int row = priorityQueues[level].poll();
+        if (priorityQueues[level].isEmpty()) {
+            nonEmptyQueues &= ~(1L << level);
+        }
+        size--;
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int timeSlice(int row) {
+        int quantum = levelQuanta[table.getPriorityLevel(row)];
+        return quantum > 0 ? quantum : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void onQuantumExpired(int row, int ran) {
+        table.setUsedAllotment(row, table.getUsedAllotment(row) + ran);
+        int level = table.getPriorityLevel(row);
+        if (table.getUsedAllotment(row) >= allotmentTime && level < levelQuanta.length - 1) {
+            // Demote to lower priority queue
+            table.setPriorityLevel(row, level + 1);
+            table.setUsedAllotment(row, 0);
+        }
+        onArrival(row);
+    }
+
+    @Override
+    public int queueLevel(int row) {
+        return table.getPriorityLevel(row);
+    }
+
+    @Override
+    public void clear() {
+        for (IntRingBuffer queue : priorityQueues) {
+            queue.clear();
+        }
+        nonEmptyQueues = 0;
+        size = 0;
+    }
+
+    // The level count is stored so a checkpoint from a different layout is rejected; levels and
+    // allotments themselves are in the table
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(priorityQueues.length);
+        for (IntRingBuffer queue : priorityQueues) {
+            queue.write(out);
+        }
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        int levels = in.readInt();
+        if (levels != priorityQueues.length) {
+            throw new IOException("Checkpoint has " + levels + " queue levels, not " + priorityQueues.length);
+        }
+        clear();
+        for (int level = 0; level < levels; level++) {
+            priorityQueues[level].read(in);
+            if (!priorityQueues[level].isEmpty()) {
+                nonEmptyQueues |= 1L << level;
+            }
+            size += priorityQueues[level].size();
+        }
+    }
+}
@@ -1,157 +1,127 @@
+import java.io.*;
 import java.util.*;
 
 public class MLFQScheduler extends Scheduler {
-    private int timeQuantum;
+    public static final int MAX_LEVELS = 64;      // One bit per level in the non-empty queue mask
+    public static final int RUN_TO_COMPLETION = 0; // Level quantum for FCFS levels
+    
+    private int[] levelQuanta;
     private int allotmentTime;
-    private List<Queue<Process>> priorityQueues;
+    
+    // One queue of process slots per level, kept across runs and rebuilt on the next run after the
+    // settings change. Each process's level and used allotment are kept in the process table
+    private MLFQPolicy policy;
     
     public MLFQScheduler(List<Process> processes, int timeQuantum, int allotmentTime) {
-        super(processes);
-        this.timeQuantum = timeQuantum;
+        // 4 priority queues: Q0-Q2 use Round Robin, Q3 runs FCFS until completion
+        this(ProcessTable.fromProcesses(processes), timeQuantum, allotmentTime);
+    }
+    
+    public MLFQScheduler(List<Process> processes, int[] levelQuanta, int allotmentTime) {
+        this(ProcessTable.fromProcesses(processes), levelQuanta, allotmentTime);
+    }
+    
+    public MLFQScheduler(ProcessTable workload, int timeQuantum, int allotmentTime) {
+        this(workload, defaultQuanta(timeQuantum), allotmentTime);
+    }
+    
+    public MLFQScheduler(ProcessTable workload, int[] levelQuanta, int allotmentTime) {
+        super(workload);
+        setLevelQuanta(levelQuanta);
         this.allotmentTime = allotmentTime;
-        this.priorityQueues = new ArrayList<>();
-        
-        // Initialize 4 priority queues (Q0, Q1, Q2, Q3)
-        for (int i = 0; i < 4; i++) {
-            priorityQueues.add(new LinkedList<>());
+    }
+    
+    // Setters; they apply to the next run
+    public void setLevelQuanta(int[] levelQuanta) {
+        if (levelQuanta.length < 1 || levelQuanta.length > MAX_LEVELS) {
+            throw new IllegalArgumentException("MLFQ needs between 1 and " + MAX_LEVELS + " levels, got " + levelQuanta.length);
         }
+        this.levelQuanta = levelQuanta.clone();
+        this.policy = null;
+    }
+    
+    // Back to the 4-level layout with the given Round Robin quantum
+    public void setTimeQuantum(int timeQuantum) {
+        this.levelQuanta = defaultQuanta(timeQuantum);
+        this.policy = null;
+    }
+    
+    public void setAllotmentTime(int allotmentTime) {
+        this.allotmentTime = allotmentTime;
+        this.policy = null;
+    }
+    
+    private static int[] defaultQuanta(int timeQuantum) {
+        return new int[]{timeQuantum, timeQuantum, timeQuantum, RUN_TO_COMPLETION};
     }
 
     @Override
     public void schedule() {
-        System.out.println("\nMULTILEVEL FEEDBACK QUEUE SCHEDULING");
-        System.out.println("Time Quantum: " + timeQuantum + ", Allotment Time: " + allotmentTime);
-        System.out.println("=".repeat(60));
-        
-        List<Process> remainingProcesses = new ArrayList<>(processes);
-        Map<Process, Integer> processAllotment = new HashMap<>();
-        currentTime = 0;
-        
-        // Sort processes by arrival time
-        remainingProcesses.sort((p1, p2) -> Integer.compare(p1.getArrivalTime(), p2.getArrivalTime()));
+        startRun();
+        if (verbose) {
+            System.out.println("\nMULTILEVEL FEEDBACK QUEUE SCHEDULING");
+            System.out.println("Time Quantum: " + describeQuanta() + ", Allotment Time: " + allotmentTime);
+            System.out.println("=".repeat(60));
+        }
         
-        while (!remainingProcesses.isEmpty() || hasProcessesInQueues()) {
-            // Add arrived processes to highest priority queue (Q0)
-            Iterator<Process> iterator = remainingProcesses.iterator();
-            while (iterator.hasNext()) {
-                Process p = iterator.next();
-                if (p.getArrivalTime() <= currentTime) {
-                    priorityQueues.get(0).add(p);
-                    processAllotment.put(p, 0);
-                    iterator.remove();
-                }
-            }
-            
-            if (!hasProcessesInQueues()) {
-                // No process in any queue, wait for next arrival
-                if (!remainingProcesses.isEmpty()) {
-                    Process nextProcess = remainingProcesses.get(0);
-                    addToGanttChart("IDLE", nextProcess.getArrivalTime() - currentTime);
-                    currentTime = nextProcess.getArrivalTime();
-                }
-                continue;
-            }
-            
-            // Find highest priority queue with processes
-            int currentQueue = 0;
-            while (currentQueue < 4 && priorityQueues.get(currentQueue).isEmpty()) {
-                currentQueue++;
-            }
-            
-            if (currentQueue < 4) {
-                Process currentProcess = priorityQueues.get(currentQueue).poll();
-                
-                // Set start time if process hasn't started yet
-                if (!currentProcess.isStarted()) {
-                    currentProcess.setStartTime(currentTime);
-                    currentProcess.setStarted(true);
-                }
-                
-                // Determine execution time based on queue level
-                int executionTime;
-                if (currentQueue < 3) {
-                    // Q0, Q1, Q2: Use time quantum
-                    executionTime = Math.min(timeQuantum, currentProcess.getRemainingTime());
-                } else {
-                    // Q3: Use FCFS (execute until completion)
-                    executionTime = currentProcess.getRemainingTime();
-                }
-                
-                // Execute process
-                addToGanttChart(currentProcess.toString() + "Q" + currentQueue, executionTime);
-                currentTime += executionTime;
-                currentProcess.setRemainingTime(currentProcess.getRemainingTime() - executionTime);
-                
-                // Update allotment time
-                int currentAllotment = processAllotment.get(currentProcess) + executionTime;
-                processAllotment.put(currentProcess, currentAllotment);
-                
-                // Check if process is completed
-                if (currentProcess.getRemainingTime() == 0) {
-                    currentProcess.setCompletionTime(currentTime);
-                } else {
-                    // Determine next queue level
-                    int nextQueue = currentQueue;
-                    if (currentAllotment >= allotmentTime && currentQueue < 3) {
-                        // Demote to lower priority queue
-                        nextQueue = currentQueue + 1;
-                        processAllotment.put(currentProcess, 0); // Reset allotment
-                    }
-                    
-                    // Add to appropriate queue
-                    priorityQueues.get(nextQueue).add(currentProcess);
-                    currentProcess.setPriorityLevel(nextQueue);
-                }
-            }
+        // New arrivals enter Q0; a process that uses up its allotment on a level moves down one, and the
+        // highest non-empty level always runs next
+        runToCompletion();
+    }
+    
+    @Override
+    protected SchedulingPolicy preparePolicy() {
+        if (policy == null) {
+            policy = new MLFQPolicy(table, levelQuanta, allotmentTime);
         }
+        return policy;
     }
     
-    private boolean hasProcessesInQueues() {
-        for (Queue<Process> queue : priorityQueues) {
-            if (!queue.isEmpty()) {
-                return true;
-            }
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        out.writeInt(levelQuanta.length);
+        for (int quantum : levelQuanta) {
+            out.writeInt(quantum);
         }
-        return false;
+        out.writeInt(allotmentTime);
     }
     
     @Override
-    public void displayResults() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("SCHEDULING RESULTS");
-        System.out.println("=".repeat(60));
-        
-        // Display Gantt Chart with queue information
-        System.out.println("\nGANTT CHART (with Queue Levels):");
-        System.out.println("-".repeat(60));
-        for (int i = 0; i < ganttChart.size(); i++) {
-            System.out.print("| " + ganttChart.get(i) + " ");
+    protected void readState(DataInput in) throws IOException {
+        int[] savedQuanta = new int[in.readInt()];
+        for (int i = 0; i < savedQuanta.length; i++) {
+            savedQuanta[i] = in.readInt();
         }
-        System.out.println("|");
-        System.out.print("0");
-        for (int i = 1; i <= ganttChart.size(); i++) {
-            System.out.printf("%" + (ganttChart.get(i-1).length() + 2) + "d", i);
+        int savedAllotment = in.readInt();
+        if (!Arrays.equals(savedQuanta, levelQuanta) || savedAllotment != allotmentTime) {
+            throw new IOException("Checkpoint was taken with quanta " + Arrays.toString(savedQuanta)
+                    + " and allotment " + savedAllotment + ", not " + Arrays.toString(levelQuanta)
+                    + " and " + allotmentTime);
         }
-        System.out.println();
-        
-        // Display Process Details
-        System.out.println("\nPROCESS DETAILS:");
-        System.out.println("-".repeat(80));
-        System.out.printf("%-10s %-12s %-10s %-12s %-12s %-12s%n", 
-                         "Process", "Arrival", "Burst", "Completion", "Turnaround", "Response");
-        System.out.println("-".repeat(80));
-        
-        for (Process p : processes) {
-            p.calculateMetrics();
-            System.out.printf("%-10s %-12d %-10d %-12d %-12d %-12d%n",
-                             "P" + p.getProcessId(), p.getArrivalTime(), p.getBurstTime(),
-                             p.getCompletionTime(), p.getTurnaroundTime(), p.getResponseTime());
+    }
+    
+    // Single quantum when every Round Robin level shares it, otherwise one entry per level
+    private String describeQuanta() {
+        int last = levelQuanta.length - 1;
+        boolean uniform = levelQuanta[0] > 0 && levelQuanta[last] == RUN_TO_COMPLETION;
+        for (int i = 1; i < last && uniform; i++) {
+            uniform = levelQuanta[i] == levelQuanta[0];
         }
-
-        // Calculate and display averages
-        calculateAverages();
-        System.out.println("-".repeat(80));
-        System.out.printf("%-10s %-12s %-10s %-12s %-12.2f %-12.2f%n",
-                         "", "", "", "AVERAGE:", avgTurnaroundTime, avgResponseTime);
+        if (uniform && levelQuanta.length == 4) {
+            return String.valueOf(levelQuanta[0]);
+        }
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < levelQuanta.length; i++) {
+            if (i > 0) {
+                description.append("/");
+            }
+            description.append(levelQuanta[i] > 0 ? String.valueOf(levelQuanta[i]) : "FCFS");
+        }
+        return description.toString();
+    }
+    
+    @Override
+    public String getGanttChartTitle() {
+        return "GANTT CHART (with Queue Levels):";
     }
 } 
\ No newline at end of file
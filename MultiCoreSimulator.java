@@ -0,0 +1,307 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+public class MultiCoreSimulator {
+    public enum Policy { FCFS, SJF, SRTF, ROUND_ROBIN, MLFQ }
+
+    // How arriving processes are assigned to cores
+    public enum Placement {
+        ROUND_ROBIN,  // Fixed rotation in arrival order, decided up front
+        LEAST_LOADED  // Core with the fewest running and queued processes at the arrival time
+    }
+
+    // What happens at balance points. Work stealing only pulls: a core takes work once it has run dry, so
+    // two busy cores with very different queue lengths stay that way until one of them drains.
+    public enum Balancing {
+        NONE,
+        WORK_STEALING,  // Each idle core takes one waiting process from the core with the longest ready queue
+        LOAD_BALANCING  // Work stealing, then waiting processes move from the longest ready queue to the
+                        // shortest until no two differ by more than one
+    }
+
+    private final ProcessTable workload;
+    private final int coreCount;
+    private final Policy policy;
+    private int[] levelQuanta = {2, 2, 2, MLFQScheduler.RUN_TO_COMPLETION};
+    private int timeQuantum = 2;
+    private int allotmentTime = 5;
+    private Placement placement = Placement.ROUND_ROBIN;
+    private Balancing balancing = Balancing.WORK_STEALING;
+    private int balanceInterval = 8;
+    private boolean parallel = true;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private ProcessTable table;
+    private CpuCore[] cores;
+    private int[] arrivalOrder;
+    private int nextArrival;
+    private int syncTime;
+
+    public MultiCoreSimulator(List<Process> processes, int coreCount, Policy policy) {
+        this(ProcessTable.fromProcesses(processes), coreCount, policy);
+    }
+
+    public MultiCoreSimulator(ProcessTable workload, int coreCount, Policy policy) {
+        if (coreCount < 1) {
+            throw new IllegalArgumentException("Core count must be positive, got " + coreCount);
+        }
+        this.workload = workload;
+        this.coreCount = coreCount;
+        this.policy = policy;
+    }
+
+    // Setters
+    public void setTimeQuantum(int timeQuantum) {
+        this.timeQuantum = timeQuantum;
+        this.levelQuanta = new int[]{timeQuantum, timeQuantum, timeQuantum, MLFQScheduler.RUN_TO_COMPLETION};
+    }
+    public void setLevelQuanta(int[] levelQuanta) { this.levelQuanta = levelQuanta.clone(); }
+    public void setAllotmentTime(int allotmentTime) { this.allotmentTime = allotmentTime; }
+    public void setPlacement(Placement placement) { this.placement = placement; }
+    public void setBalancing(Balancing balancing) { this.balancing = balancing; }
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+    public void setPool(ForkJoinPool pool) { this.pool = pool; }
+
+    public void setBalanceInterval(int balanceInterval) {
+        if (balanceInterval < 1) {
+            throw new IllegalArgumentException("Balance interval must be positive, got " + balanceInterval);
+        }
+        this.balanceInterval = balanceInterval;
+    }
+
+    public void run() {
+        table = workload.newRun();
+        int n = table.size();
+        arrivalOrder = table.rowsByArrival();
+        int[] lastCore = new int[n];
+        Arrays.fill(lastCore, -1);
+
+        cores = new CpuCore[coreCount];
+        for (int i = 0; i < coreCount; i++) {
+            cores[i] = new CpuCore(i, table, createPolicy(), lastCore);
+        }
+
+        nextArrival = 0;
+        syncTime = 0;
+        if (placement == Placement.ROUND_ROBIN) {
+            // Assignment doesn't depend on core state, so arrivals never force a sync point
+            for (int i = 0; i < n; i++) {
+                cores[i % coreCount].assign(arrivalOrder[i]);
+            }
+            nextArrival = n;
+        }
+
+        if (parallel && coreCount > 1) {
+            runParallel();
+            return;
+        }
+        while (true) {
+            int nextSync = nextSyncTime();
+            for (CpuCore core : cores) {
+                core.advance(nextSync);
+            }
+            if (nextSync == Integer.MAX_VALUE) {
+                break;
+            }
+            synchronize(nextSync);
+        }
+    }
+
+    // One long-lived task per group of cores instead of one parallel stream per sync point. Each task runs
+    // its cores up to the shared sync time and waits at the phaser; the last one to arrive places arrivals,
+    // balances and picks the next sync time in onAdvance. Phaser waits are managed blocks, so a pool with
+    // fewer threads than groups adds threads rather than deadlocking.
+    private void runParallel() {
+        int groups = Math.min(coreCount, Math.max(1, pool.getParallelism()));
+        int[] limit = {nextSyncTime()};
+        RuntimeException[] failure = new RuntimeException[1];
+        Phaser phaser = new Phaser(groups) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                if (limit[0] == Integer.MAX_VALUE) {
+                    return true;
+                }
+                try {
+                    synchronize(limit[0]);
+                    limit[0] = nextSyncTime();
+                    return false;
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                    return true;
+                }
+            }
+        };
+
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[groups];
+        for (int g = 0; g < groups; g++) {
+            int group = g;
+            tasks[g] = pool.submit(() -> {
+                try {
+                    do {
+                        for (int i = group; i < coreCount; i += groups) {
+                            cores[i].advance(limit[0]);
+                        }
+                    } while (phaser.arriveAndAwaitAdvance() >= 0);
+                } catch (RuntimeException | Error e) {
+                    phaser.forceTermination();
+                    throw e;
+                }
+            });
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    // Cores run independently until the next arrival to place or the next balance point
+    private int nextSyncTime() {
+        int nextSync = Integer.MAX_VALUE;
+        if (nextArrival < arrivalOrder.length) {
+            nextSync = table.getArrivalTime(arrivalOrder[nextArrival]);
+        }
+        if (balancing != Balancing.NONE && coreCount > 1) {
+            nextSync = Math.min(nextSync, nextBalanceTime(syncTime));
+        }
+        return nextSync;
+    }
+
+    private void synchronize(int time) {
+        syncTime = time;
+
+        // Place arrivals on the least loaded core, lowest core id on ties
+        while (nextArrival < arrivalOrder.length && table.getArrivalTime(arrivalOrder[nextArrival]) <= syncTime) {
+            leastLoadedCore().assign(arrivalOrder[nextArrival++]);
+        }
+
+        if (balancing != Balancing.NONE) {
+            stealForIdleCores();
+        }
+        if (balancing == Balancing.LOAD_BALANCING) {
+            evenOutQueues();
+        }
+    }
+
+    private SchedulingPolicy createPolicy() {
+        int capacity = Math.max(16, table.size() / coreCount);
+        return createPolicy(policy, table, capacity, timeQuantum, levelQuanta, allotmentTime);
+    }
+
+    // Ready queue for one CPU running the given policy over the table's rows
+    static SchedulingPolicy createPolicy(Policy policy, ProcessTable table, int capacity,
+                                         int timeQuantum, int[] levelQuanta, int allotmentTime) {
+        switch (policy) {
+            case SJF:
+                return new SJFPolicy(table, capacity);
+            case SRTF:
+                return new SRTFPolicy(table, capacity);
+            case ROUND_ROBIN:
+                return new RoundRobinPolicy(capacity, timeQuantum);
+            case MLFQ:
+                return new MLFQPolicy(table, levelQuanta, allotmentTime);
+            default:
+                return new FCFSPolicy(capacity);
+        }
+    }
+
+    private CpuCore leastLoadedCore() {
+        CpuCore best = cores[0];
+        for (CpuCore core : cores) {
+            if (core.getLoad() < best.getLoad()) {
+                best = core;
+            }
+        }
+        return best;
+    }
+
+    // Balance points are only needed while some process is waiting in a ready queue; otherwise skip
+    // ahead to the first tick after the next pre-assigned arrival
+    private int nextBalanceTime(int syncTime) {
+        int earliestArrival = Integer.MAX_VALUE;
+        for (CpuCore core : cores) {
+            if (core.getReadyCount() > 0) {
+                return (int) Math.min(Integer.MAX_VALUE, (long) syncTime + balanceInterval);
+            }
+            earliestArrival = Math.min(earliestArrival, core.getNextArrivalTime());
+        }
+        if (earliestArrival == Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max((long) syncTime + balanceInterval, (long) earliestArrival + 1));
+    }
+
+    private void stealForIdleCores() {
+        for (CpuCore thief : cores) {
+            if (!thief.isIdle()) {
+                continue;
+            }
+            CpuCore victim = null;
+            for (CpuCore core : cores) {
+                if (core.getReadyCount() > 0 && (victim == null || core.getReadyCount() > victim.getReadyCount())) {
+                    victim = core;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            thief.acceptMigrant(victim.steal());
+        }
+    }
+
+    private void evenOutQueues() {
+        while (true) {
+            CpuCore longest = cores[0];
+            CpuCore shortest = cores[0];
+            for (CpuCore core : cores) {
+                if (core.getReadyCount() > longest.getReadyCount()) {
+                    longest = core;
+                }
+                if (core.getReadyCount() < shortest.getReadyCount()) {
+                    shortest = core;
+                }
+            }
+            if (longest.getReadyCount() - shortest.getReadyCount() <= 1) {
+                return;
+            }
+            shortest.acceptMigrant(longest.steal());
+        }
+    }
+
+    // Getters
+    public ProcessTable getProcessTable() { return table; }
+    public int getCoreCount() { return coreCount; }
+    public Timeline getCoreTimeline(int core) { return cores[core].getTimeline(); }
+    public int getCoreCompleted(int core) { return cores[core].getCompleted(); }
+    public int getCoreMigrations(int core) { return cores[core].getMigrations(); }
+    public long getCoreBusyTime(int core) { return cores[core].getBusyTime(); }
+    public Policy getPolicy() { return policy; }
+    public Placement getPlacement() { return placement; }
+    public Balancing getBalancing() { return balancing; }
+
+    public int getMigrations() {
+        int migrations = 0;
+        for (CpuCore core : cores) {
+            migrations += core.getMigrations();
+        }
+        return migrations;
+    }
+
+    // Metrics across all cores
+    public SchedulingMetrics getMetrics() {
+        SchedulingMetrics combined = new SchedulingMetrics();
+        for (CpuCore core : cores) {
+            combined.merge(core.getMetrics());
+        }
+        return combined;
+    }
+
+    public int getMakespan() {
+        int makespan = 0;
+        for (CpuCore core : cores) {
+            makespan = Math.max(makespan, core.getTimeline().getEndTime());
+        }
+        return makespan;
+    }
+}
@@ -0,0 +1,266 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+// Schedules processes as they arrive from a live source instead of from a complete workload. One CpuCore
+// makes the same incremental decisions as in the multi-core engine; time only advances up to the latest
+// arrival, since nothing is known about later ones. A completed process's row is reused by the next
+// arrival and timeline segments are handed out once they can no longer grow, so memory is bounded by
+// the processes in flight rather than by the history of the run.
+public class OnlineSimulator {
+    // Queued behind the last arrival when the publisher completes or fails; never a Process
+    private static final Object END_OF_STREAM = new Object();
+
+    private static final int FLOW_BATCH = 256;                  // Publisher demand kept outstanding
+    private static final long PACING_TICK_NANOS = 20_000_000L;  // Longest wait between paced steps
+
+    // Called on the simulating thread as the run progresses
+    public interface Listener {
+        // A finished stretch of the timeline; processId is Timeline.IDLE for idle time
+        default void onSegment(int processId, int queueLevel, int start, int end) {
+        }
+
+        // A completed process, passed as values since its row is reused by the next arrival
+        default void onCompletion(int processId, int arrivalTime, int burstTime, int startTime, int completionTime) {
+        }
+    }
+
+    private final ProcessTable table = new ProcessTable(64);
+    private final IntRingBuffer freeRows = new IntRingBuffer(64);
+    private final CpuCore core;
+    private Listener listener = new Listener() { };
+
+    private int clock;          // Everything before this time has been simulated
+    private int inFlight;
+    private int peakInFlight;
+    private long submitted;
+
+    // Wall-clock pacing; 0 runs as fast as arrivals come in
+    private double timeUnitsPerSecond;
+    private boolean paceStarted;
+    private long paceStartNanos;
+    private int paceOrigin;     // Simulated time at paceStartNanos
+    private long lateArrivals;
+    private long maxLagNanos;
+
+    public OnlineSimulator(MultiCoreSimulator.Policy policy, int timeQuantum, int allotmentTime) {
+        int[] levelQuanta = {timeQuantum, timeQuantum, timeQuantum, MLFQScheduler.RUN_TO_COMPLETION};
+        SchedulingPolicy readyQueue = policy == MultiCoreSimulator.Policy.SRTF
+                ? new SRTFPolicy(table, 64, true)
+                : MultiCoreSimulator.createPolicy(policy, table, 64, timeQuantum, levelQuanta, allotmentTime);
+        core = new CpuCore(0, table, readyQueue, null);
+        core.setCompletionListener(this::complete);
+    }
+
+    // Setters
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    // Simulated time units per wall-clock second. Paced runs advance with the wall clock from the first
+    // arrival on, and arrivals that come in behind it are treated as arriving now
+    public void setPacing(double timeUnitsPerSecond) {
+        if (timeUnitsPerSecond < 0) {
+            throw new IllegalArgumentException("Pacing rate must not be negative, got " + timeUnitsPerSecond);
+        }
+        this.timeUnitsPerSecond = timeUnitsPerSecond;
+    }
+
+    // Arrivals must come in non-decreasing arrival time unless the run is paced
+    public void submit(Process process) {
+        if (process.getBurstTime() < 1) {
+            throw new IllegalArgumentException("Burst time must be positive, got " + process.getBurstTime()
+                    + " for P" + process.getProcessId());
+        }
+        int arrival = process.getArrivalTime();
+        if (isPaced()) {
+            if (!paceStarted) {
+                paceStarted = true;
+                paceStartNanos = System.nanoTime();
+                paceOrigin = Math.max(clock, arrival);
+            }
+            if (arrival < clock) {
+                lateArrivals++;
+                arrival = clock;
+            }
+            paceTo(arrival);
+        } else {
+            if (arrival < clock) {
+                throw new IllegalArgumentException("P" + process.getProcessId() + " arrives at " + arrival
+                        + ", before time " + clock + " already simulated; arrivals must come in arrival order");
+            }
+            advanceTo(arrival);
+        }
+
+        int row;
+        if (freeRows.isEmpty()) {
+            row = table.add(process.getProcessId(), arrival, process.getBurstTime());
+        } else {
+            row = freeRows.poll();
+            table.reuse(row, process.getProcessId(), arrival, process.getBurstTime());
+        }
+        core.assign(row);
+        submitted++;
+        inFlight++;
+        peakInFlight = Math.max(peakInFlight, inFlight);
+    }
+
+    // No more arrivals: run what is left (in step with the wall clock when paced) and flush the timeline
+    public void finish() {
+        if (isPaced() && paceStarted) {
+            int step = Math.max(1, (int) (timeUnitsPerSecond * PACING_TICK_NANOS / 1e9));
+            while (!core.isIdle()) {
+                paceTo((int) Math.min(Integer.MAX_VALUE - 1L, (long) clock + step));
+            }
+        }
+        core.advance(Integer.MAX_VALUE);
+        clock = Math.max(clock, core.getTimeline().getEndTime());
+        Timeline timeline = core.getTimeline();
+        for (int s = 0; s < timeline.segmentCount(); s++) {
+            emitSegment(timeline, s);
+        }
+        timeline.retainLast();
+    }
+
+    // Subscribes and consumes until the publisher completes, then finishes. Demand is requested in batches
+    // as arrivals are simulated, so a fast publisher (a SubmissionPublisher fed by a producer thread, say)
+    // is held back instead of queueing without bound
+    public void run(Flow.Publisher<Process> publisher) throws InterruptedException {
+        BlockingQueue<Object> buffer = new LinkedBlockingQueue<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        Throwable[] failure = new Throwable[1];
+        CountDownLatch subscribed = new CountDownLatch(1);
+
+        publisher.subscribe(new Flow.Subscriber<Process>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                subscribed.countDown();
+                s.request(FLOW_BATCH);
+            }
+
+            @Override
+            public void onNext(Process process) {
+                buffer.add(process);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                failure[0] = error;
+                buffer.add(END_OF_STREAM);
+            }
+
+            @Override
+            public void onComplete() {
+                buffer.add(END_OF_STREAM);
+            }
+        });
+        subscribed.await();
+
+        int[] consumed = {0};
+        consume(buffer, () -> {
+            if (++consumed[0] == FLOW_BATCH / 2) {
+                consumed[0] = 0;
+                subscription[0].request(FLOW_BATCH / 2);
+            }
+        }, failure);
+    }
+
+    private void consume(BlockingQueue<Object> arrivals, Runnable afterEach, Throwable[] failure)
+            throws InterruptedException {
+        while (true) {
+            Object item;
+            if (isPaced()) {
+                // Keep the simulation moving with the wall clock while no arrival comes in
+                item = arrivals.poll(PACING_TICK_NANOS, TimeUnit.NANOSECONDS);
+                if (item == null) {
+                    if (paceStarted) {
+                        advanceTo(simulatedNow());
+                    }
+                    continue;
+                }
+            } else {
+                item = arrivals.take();
+            }
+            if (item == END_OF_STREAM) {
+                break;
+            }
+            submit((Process) item);
+            afterEach.run();
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException("Arrival stream failed", failure[0]);
+        }
+        finish();
+    }
+
+    private boolean isPaced() {
+        return timeUnitsPerSecond > 0;
+    }
+
+    // Simulate up to the target time, but no faster than the wall clock allows. Every wait is computed
+    // from the start of pacing, so oversleeping on one step is made up on the next instead of adding up
+    private void paceTo(int target) {
+        while (clock < target) {
+            long deadline = Math.min(wallTimeOf(target), System.nanoTime() + PACING_TICK_NANOS);
+            sleepUntil(deadline);
+            advanceTo(Math.min(target, simulatedNow()));
+        }
+    }
+
+    private long wallTimeOf(int time) {
+        return paceStartNanos + (long) ((time - paceOrigin) / timeUnitsPerSecond * 1e9);
+    }
+
+    private int simulatedNow() {
+        double elapsedSeconds = (System.nanoTime() - paceStartNanos) / 1e9;
+        return (int) Math.min(Integer.MAX_VALUE - 1L, paceOrigin + (long) (elapsedSeconds * timeUnitsPerSecond));
+    }
+
+    private void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Online simulation interrupted at time " + clock);
+            }
+        }
+        maxLagNanos = Math.max(maxLagNanos, -remaining);
+    }
+
+    private void advanceTo(int time) {
+        if (time <= clock) {
+            return;
+        }
+        core.advance(time);
+        clock = time;
+
+        // All segments but the last are final; the last may still be extended by the running process
+        Timeline timeline = core.getTimeline();
+        for (int s = 0; s < timeline.segmentCount() - 1; s++) {
+            emitSegment(timeline, s);
+        }
+        timeline.retainLast();
+    }
+
+    private void emitSegment(Timeline timeline, int segment) {
+        listener.onSegment(timeline.getProcessId(segment), timeline.getQueueLevel(segment),
+                           timeline.getStart(segment), timeline.getEnd(segment));
+    }
+
+    // The core has recorded the row's metrics; report it and free the row for the next arrival
+    private void complete(int row) {
+        listener.onCompletion(table.getProcessId(row), table.getArrivalTime(row), table.getBurstTime(row),
+                              table.getStartTime(row), table.getCompletionTime(row));
+        freeRows.add(row);
+        inFlight--;
+    }
+
+    // Getters; metrics cover completed processes and are read on the simulating thread
+    public SchedulingMetrics getMetrics() { return core.getMetrics(); }
+    public int getClock() { return clock; }
+    public int getInFlight() { return inFlight; }
+    public int getPeakInFlight() { return peakInFlight; }
+    public long getSubmitted() { return submitted; }
+    public long getLateArrivals() { return lateArrivals; }
+    public long getMaxLagNanos() { return maxLagNanos; }
+}
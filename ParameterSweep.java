@@ -0,0 +1,312 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+public class ParameterSweep {
+    public enum Policy { ROUND_ROBIN, MLFQ }
+
+    public enum Objective { TURNAROUND, RESPONSE }
+
+    public static final int MAX_QUANTUM = 1 << 20;
+
+    // One grid point; allotment and level count only apply to MLFQ
+    public static class SweepPoint {
+        public final Policy policy;
+        public final int timeQuantum;
+        public final int allotmentTime;
+        public final int levels;
+
+        public SweepPoint(Policy policy, int timeQuantum, int allotmentTime, int levels) {
+            if (timeQuantum < 1 || allotmentTime < 1 || levels < 1 || levels > MLFQScheduler.MAX_LEVELS) {
+                throw new IllegalArgumentException("Invalid sweep point: quantum " + timeQuantum
+                        + ", allotment " + allotmentTime + ", levels " + levels);
+            }
+            this.policy = policy;
+            this.timeQuantum = timeQuantum;
+            this.allotmentTime = allotmentTime;
+            this.levels = levels;
+        }
+
+        Scheduler createScheduler(ProcessTable workload) {
+            if (policy == Policy.ROUND_ROBIN) {
+                return new RoundRobinScheduler(workload, timeQuantum);
+            }
+            return new MLFQScheduler(workload, levelQuanta(), allotmentTime);
+        }
+
+        // Points this point's policy scheduler at the workload and parameters, reusing its buffers
+        void configure(Scheduler scheduler, ProcessTable workload) {
+            scheduler.reset(workload);
+            if (policy == Policy.ROUND_ROBIN) {
+                ((RoundRobinScheduler) scheduler).setTimeQuantum(timeQuantum);
+            } else {
+                MLFQScheduler mlfq = (MLFQScheduler) scheduler;
+                mlfq.setLevelQuanta(levelQuanta());
+                mlfq.setAllotmentTime(allotmentTime);
+            }
+        }
+
+        // MLFQ levels use the time quantum except the last one, which runs FCFS like the default 4-level setup
+        private int[] levelQuanta() {
+            int[] quanta = new int[levels];
+            Arrays.fill(quanta, timeQuantum);
+            if (levels > 1) {
+                quanta[levels - 1] = MLFQScheduler.RUN_TO_COMPLETION;
+            }
+            return quanta;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SweepPoint)) {
+                return false;
+            }
+            SweepPoint other = (SweepPoint) o;
+            return policy == other.policy && timeQuantum == other.timeQuantum
+                    && (policy == Policy.ROUND_ROBIN
+                        || (allotmentTime == other.allotmentTime && levels == other.levels));
+        }
+
+        @Override
+        public int hashCode() {
+            return policy == Policy.ROUND_ROBIN ? Objects.hash(policy, timeQuantum)
+                    : Objects.hash(policy, timeQuantum, allotmentTime, levels);
+        }
+
+        @Override
+        public String toString() {
+            return policy == Policy.ROUND_ROBIN ? "RR q=" + timeQuantum
+                    : "MLFQ q=" + timeQuantum + " a=" + allotmentTime + " levels=" + levels;
+        }
+    }
+
+    public static class SweepResult {
+        public final SweepPoint point;
+        public final double avgTurnaroundTime;
+        public final double avgResponseTime;
+
+        SweepResult(SweepPoint point, double avgTurnaroundTime, double avgResponseTime) {
+            this.point = point;
+            this.avgTurnaroundTime = avgTurnaroundTime;
+            this.avgResponseTime = avgResponseTime;
+        }
+
+        public double score(Objective objective) {
+            return objective == Objective.TURNAROUND ? avgTurnaroundTime : avgResponseTime;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private volatile boolean cancelled;
+    private volatile AtomicReferenceArray<Scheduler> running = new AtomicReferenceArray<>(0); // Per batch of the current run()
+    private final AtomicLong finishedWork = new AtomicLong();
+    private final AtomicInteger finishedPoints = new AtomicInteger();
+
+    public ParameterSweep() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParameterSweep(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Every combination of the given values; for Round Robin only the quanta matter
+    public static List<SweepPoint> grid(Policy policy, int[] quanta, int[] allotments, int[] levelCounts) {
+        Set<SweepPoint> points = new LinkedHashSet<>();
+        for (int quantum : quanta) {
+            for (int allotment : allotments) {
+                for (int levels : levelCounts) {
+                    points.add(new SweepPoint(policy, quantum, allotment, levels));
+                }
+            }
+        }
+        return new ArrayList<>(points);
+    }
+
+    // Run the points on the pool; results keep the order of the points. The points are split into a few
+    // batches per worker and each batch reuses one scheduler per policy, so a sweep allocates run state
+    // per batch rather than per point
+    public List<SweepResult> run(ProcessTable workload, List<SweepPoint> points) {
+        int batches = Math.min(points.size(), pool.getParallelism() * 4);
+        SweepResult[] results = new SweepResult[points.size()];
+        AtomicReferenceArray<Scheduler> batchSchedulers = new AtomicReferenceArray<>(batches);
+        running = batchSchedulers;
+        long burst = totalBurst(workload);
+        try {
+            pool.submit(() -> IntStream.range(0, batches).parallel().forEach(batch -> {
+                Map<Policy, Scheduler> schedulers = new EnumMap<>(Policy.class);
+                try {
+                    for (int i = batch; i < results.length; i += batches) {
+                        Scheduler scheduler = prepare(schedulers, workload, points.get(i));
+                        // Published before the check so a cancel() in between still reaches this run
+                        batchSchedulers.set(batch, scheduler);
+                        if (cancelled) {
+                            throw new CancellationException("Parameter sweep cancelled");
+                        }
+                        scheduler.schedule();
+                        results[i] = new SweepResult(points.get(i), scheduler.getAvgTurnaroundTime(), scheduler.getAvgResponseTime());
+                        finishedWork.addAndGet(burst);
+                        finishedPoints.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    cancel();
+                    throw e;
+                } finally {
+                    batchSchedulers.set(batch, null);
+                }
+            })).get();
+            return Arrays.asList(results);
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Parameter sweep interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            throw new IllegalStateException("Parameter sweep failed", e.getCause());
+        }
+    }
+
+    // Stops the sweep for good: points in progress stop at their next loop iteration and run() or refine()
+    // throws CancellationException
+    public void cancel() {
+        cancelled = true;
+        AtomicReferenceArray<Scheduler> schedulers = running;
+        for (int i = 0; i < schedulers.length(); i++) {
+            Scheduler scheduler = schedulers.get(i);
+            if (scheduler != null) {
+                scheduler.cancel();
+            }
+        }
+    }
+
+    // Burst units scheduled so far over every run() of this sweep, including points still in progress
+    public long getCompletedWork() {
+        long completed = finishedWork.get();
+        AtomicReferenceArray<Scheduler> schedulers = running;
+        for (int i = 0; i < schedulers.length(); i++) {
+            Scheduler scheduler = schedulers.get(i);
+            if (scheduler != null) {
+                completed += scheduler.getCompletedWork();
+            }
+        }
+        return completed;
+    }
+
+    public int getCompletedPoints() { return finishedPoints.get(); }
+
+    // What getCompletedWork() reaches once run() has finished the given points
+    public static long getTotalWork(ProcessTable workload, List<SweepPoint> points) {
+        return totalBurst(workload) * points.size();
+    }
+
+    private static long totalBurst(ProcessTable workload) {
+        long burst = 0;
+        for (int row = 0; row < workload.size(); row++) {
+            burst += workload.getBurstTime(row);
+        }
+        return burst;
+    }
+
+    public static SweepResult evaluate(ProcessTable workload, SweepPoint point) {
+        Scheduler scheduler = prepare(new EnumMap<>(Policy.class), workload, point);
+        scheduler.schedule();
+        return new SweepResult(point, scheduler.getAvgTurnaroundTime(), scheduler.getAvgResponseTime());
+    }
+
+    // The cached scheduler for the point's policy, configured for the point and created on first use
+    private static Scheduler prepare(Map<Policy, Scheduler> schedulers, ProcessTable workload, SweepPoint point) {
+        Scheduler scheduler = schedulers.get(point.policy);
+        if (scheduler == null) {
+            scheduler = point.createScheduler(workload);
+            scheduler.setVerbose(false);
+            schedulers.put(point.policy, scheduler);
+        } else {
+            point.configure(scheduler, workload);
+        }
+        return scheduler;
+    }
+
+    public static SweepResult best(List<SweepResult> results, Objective objective) {
+        SweepResult best = null;
+        for (SweepResult result : results) {
+            if (best == null || result.score(objective) < best.score(objective)) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    // Pattern search around a starting point: try neighbours at the current step sizes (plus doubling and
+    // halving, since the response surface is rarely convex) in parallel, move to the best improvement,
+    // and halve the steps when nothing improves
+    public SweepResult refine(ProcessTable workload, SweepResult start, Objective objective, int maxRounds) {
+        SweepResult best = start;
+        int quantumStep = Math.max(1, start.point.timeQuantum / 2);
+        int allotmentStep = Math.max(1, start.point.allotmentTime / 2);
+        Set<SweepPoint> visited = new HashSet<>();
+        visited.add(start.point);
+
+        for (int round = 0; round < maxRounds; round++) {
+            SweepPoint center = best.point;
+            boolean mlfq = center.policy == Policy.MLFQ;
+            int[] quanta = neighbourValues(center.timeQuantum, quantumStep, MAX_QUANTUM);
+            int[] allotments = mlfq ? neighbourValues(center.allotmentTime, allotmentStep, MAX_QUANTUM)
+                                    : new int[]{center.allotmentTime};
+            int[] levelCounts = mlfq ? new int[]{center.levels - 1, center.levels, center.levels + 1}
+                                     : new int[]{center.levels};
+
+            List<SweepPoint> neighbours = new ArrayList<>();
+            for (int quantum : quanta) {
+                for (int allotment : allotments) {
+                    for (int levels : levelCounts) {
+                        if (levels < 1 || levels > MLFQScheduler.MAX_LEVELS) {
+                            continue;
+                        }
+                        SweepPoint point = new SweepPoint(center.policy, quantum, allotment, levels);
+                        if (visited.add(point)) {
+                            neighbours.add(point);
+                        }
+                    }
+                }
+            }
+
+            SweepResult candidate = neighbours.isEmpty() ? null : best(run(workload, neighbours), objective);
+            if (candidate != null && candidate.score(objective) < best.score(objective)) {
+                best = candidate;
+            } else if (quantumStep == 1 && allotmentStep == 1) {
+                break;
+            } else {
+                quantumStep = Math.max(1, quantumStep / 2);
+                allotmentStep = Math.max(1, allotmentStep / 2);
+            }
+        }
+        return best;
+    }
+
+    private static int[] neighbourValues(int value, int step, int max) {
+        return IntStream.of(value - step, value, value + step, value / 2, value * 2)
+                .filter(v -> v >= 1 && v <= max)
+                .distinct()
+                .toArray();
+    }
+
+    public static String formatResults(List<SweepResult> results) {
+        StringBuilder output = new StringBuilder();
+        output.append(String.format("%-10s %-10s %-12s %-8s %-12s %-12s%n",
+                "Policy", "Quantum", "Allotment", "Levels", "Turnaround", "Response"));
+        output.append("-".repeat(70)).append("\n");
+        for (SweepResult result : results) {
+            SweepPoint point = result.point;
+            boolean mlfq = point.policy == Policy.MLFQ;
+            output.append(String.format("%-10s %-10d %-12s %-8s %-12.2f %-12.2f%n",
+                    mlfq ? "MLFQ" : "RR", point.timeQuantum,
+                    mlfq ? String.valueOf(point.allotmentTime) : "-",
+                    mlfq ? String.valueOf(point.levels) : "-",
+                    result.avgTurnaroundTime, result.avgResponseTime));
+        }
+        return output.toString();
+    }
+}
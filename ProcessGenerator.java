@@ -1,10 +1,15 @@
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class ProcessGenerator {
-    private static Random random = new Random();
-    
     public static List<Process> generateRandomProcesses(int numProcesses) {
-        List<Process> processes = new ArrayList<>();
+        return generateRandomProcesses(numProcesses, ThreadLocalRandom.current().nextLong());
+    }
+    
+    // Same seed, same processes; see WorkloadGenerator for large or heavy-tailed workloads
+    public static List<Process> generateRandomProcesses(int numProcesses, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Process> processes = new ArrayList<>(numProcesses);
         
         for (int i = 1; i <= numProcesses; i++) {
             int arrivalTime = random.nextInt(10); // 0-9
@@ -28,16 +33,7 @@ public class ProcessGenerator {
         return processes;
     }
     
-    public static void displayProcesses(List<Process> processes) {
-        System.out.println("\nPROCESS LIST:");
-        System.out.println("-".repeat(40));
-        System.out.printf("%-10s %-12s %-10s%n", "Process", "Arrival", "Burst");
-        System.out.println("-".repeat(40));
-        
-        for (Process p : processes) {
-            System.out.printf("%-10s %-12d %-10d%n", 
-                             "P" + p.getProcessId(), p.getArrivalTime(), p.getBurstTime());
-        }
-        System.out.println();
+    public static void displayProcesses(ProcessTable table) {
+        new ConsoleReporter().printProcessList(table);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,275 @@
+import java.io.*;
+import java.util.*;
+
+public class ProcessTable {
+    // Workload columns: never modified once a row is added, so runs can share them
+    private int[] processIds;
+    private int[] arrivalTimes;
+    private int[] burstTimes;
+
+    // Per-run columns
+    private int[] remainingTimes;
+    private int[] startTimes;       // -1 until the process first runs
+    private int[] completionTimes;
+    private int[] priorityLevels;   // For MLFQ
+    private int[] usedAllotments;   // For MLFQ: time run at the current level
+
+    private int size;
+    private boolean sharesWorkload; // Copy the workload columns before adding or reusing rows
+
+    // Rows sorted by arrival, kept until the workload changes
+    private int[] arrivalOrder;
+    private long[] arrivalKeys;
+    private boolean arrivalOrderValid;
+
+    public ProcessTable(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        processIds = new int[capacity];
+        arrivalTimes = new int[capacity];
+        burstTimes = new int[capacity];
+        remainingTimes = new int[capacity];
+        startTimes = new int[capacity];
+        completionTimes = new int[capacity];
+        priorityLevels = new int[capacity];
+        usedAllotments = new int[capacity];
+        size = 0;
+    }
+
+    // Table for a new run that shares this table's workload columns and has fresh run state. Both sides
+    // are marked as sharing, so whichever writes a row next copies the columns first
+    private ProcessTable(ProcessTable workload) {
+        workload.sharesWorkload = true;
+        processIds = workload.processIds;
+        arrivalTimes = workload.arrivalTimes;
+        burstTimes = workload.burstTimes;
+        size = workload.size;
+        sharesWorkload = true;
+        remainingTimes = Arrays.copyOf(workload.burstTimes, Math.max(1, size));
+        startTimes = new int[Math.max(1, size)];
+        Arrays.fill(startTimes, -1);
+        completionTimes = new int[Math.max(1, size)];
+        priorityLevels = new int[Math.max(1, size)];
+        usedAllotments = new int[Math.max(1, size)];
+    }
+
+    public static ProcessTable fromProcesses(List<Process> processes) {
+        ProcessTable table = new ProcessTable(processes.size());
+        for (Process p : processes) {
+            table.add(p.getProcessId(), p.getArrivalTime(), p.getBurstTime());
+        }
+        return table;
+    }
+
+    // Table that takes ownership of already-filled workload columns of equal length
+    public static ProcessTable fromColumns(int[] processIds, int[] arrivalTimes, int[] burstTimes) {
+        if (arrivalTimes.length != processIds.length || burstTimes.length != processIds.length) {
+            throw new IllegalArgumentException("Workload columns must have the same length");
+        }
+        ProcessTable columns = new ProcessTable(0);
+        columns.processIds = processIds;
+        columns.arrivalTimes = arrivalTimes;
+        columns.burstTimes = burstTimes;
+        columns.size = processIds.length;
+        return columns.newRun();
+    }
+
+    public ProcessTable newRun() {
+        return new ProcessTable(this);
+    }
+
+    // Turns this table into a fresh run of the given workload, reusing the per-run columns when they
+    // are big enough. The arrival order is kept when the workload is the one this table already runs
+    public void reset(ProcessTable workload) {
+        if (!hasWorkload(workload)) {
+            workload.sharesWorkload = true;
+            processIds = workload.processIds;
+            arrivalTimes = workload.arrivalTimes;
+            burstTimes = workload.burstTimes;
+            size = workload.size;
+            arrivalOrderValid = false;
+        }
+        sharesWorkload = true;
+        if (remainingTimes.length < size) {
+            int capacity = Math.max(1, size);
+            remainingTimes = new int[capacity];
+            startTimes = new int[capacity];
+            completionTimes = new int[capacity];
+            priorityLevels = new int[capacity];
+            usedAllotments = new int[capacity];
+        }
+        System.arraycopy(burstTimes, 0, remainingTimes, 0, size);
+        Arrays.fill(startTimes, 0, size, -1);
+        Arrays.fill(completionTimes, 0, size, 0);
+        Arrays.fill(priorityLevels, 0, size, 0);
+        Arrays.fill(usedAllotments, 0, size, 0);
+    }
+
+    // Whether both tables read the same workload columns
+    public boolean hasWorkload(ProcessTable workload) {
+        return processIds == workload.processIds && arrivalTimes == workload.arrivalTimes
+                && burstTimes == workload.burstTimes && size == workload.size;
+    }
+
+    public int add(int processId, int arrivalTime, int burstTime) {
+        if (size == processIds.length || sharesWorkload) {
+            grow();
+            sharesWorkload = false;
+        }
+        int row = size++;
+        fill(row, processId, arrivalTime, burstTime);
+        return row;
+    }
+
+    // Overwrites a finished row with a new process, so a table can serve as a pool of in-flight slots. Runs
+    // made from this table keep the rows they started with
+    public void reuse(int row, int processId, int arrivalTime, int burstTime) {
+        Objects.checkIndex(row, size);
+        if (sharesWorkload) {
+            grow();
+            sharesWorkload = false;
+        }
+        fill(row, processId, arrivalTime, burstTime);
+    }
+
+    // Identifies the workload columns, so run state saved for one workload isn't loaded into another
+    public long workloadHash() {
+        long hash = size;
+        for (int row = 0; row < size; row++) {
+            hash = (hash ^ processIds[row]) * 0x100000001B3L;
+            hash = (hash ^ arrivalTimes[row]) * 0x100000001B3L;
+            hash = (hash ^ burstTimes[row]) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Checkpoint support for the per-run columns; the workload itself is not stored
+    public void writeRunState(DataOutput out) throws IOException {
+        out.writeInt(size);
+        CheckpointFile.writeInts(out, remainingTimes, 0, size);
+        CheckpointFile.writeInts(out, startTimes, 0, size);
+        CheckpointFile.writeInts(out, completionTimes, 0, size);
+        CheckpointFile.writeInts(out, priorityLevels, 0, size);
+        CheckpointFile.writeInts(out, usedAllotments, 0, size);
+    }
+
+    public void readRunState(DataInput in) throws IOException {
+        int rows = in.readInt();
+        if (rows != size) {
+            throw new IOException("Checkpoint has " + rows + " processes, the workload has " + size);
+        }
+        CheckpointFile.readInts(in, remainingTimes, 0, size);
+        CheckpointFile.readInts(in, startTimes, 0, size);
+        CheckpointFile.readInts(in, completionTimes, 0, size);
+        CheckpointFile.readInts(in, priorityLevels, 0, size);
+        CheckpointFile.readInts(in, usedAllotments, 0, size);
+    }
+
+    private void fill(int row, int processId, int arrivalTime, int burstTime) {
+        arrivalOrderValid = false;
+        processIds[row] = processId;
+        arrivalTimes[row] = arrivalTime;
+        burstTimes[row] = burstTime;
+        remainingTimes[row] = burstTime;
+        startTimes[row] = -1;
+        completionTimes[row] = 0;
+        priorityLevels[row] = 0;
+        usedAllotments[row] = 0;
+    }
+
+    private void grow() {
+        int capacity = processIds.length + (processIds.length >> 1) + 1;
+        processIds = Arrays.copyOf(processIds, capacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+        burstTimes = Arrays.copyOf(burstTimes, capacity);
+        remainingTimes = Arrays.copyOf(remainingTimes, capacity);
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        completionTimes = Arrays.copyOf(completionTimes, capacity);
+        priorityLevels = Arrays.copyOf(priorityLevels, capacity);
+        usedAllotments = Arrays.copyOf(usedAllotments, capacity);
+    }
+
+    // Getters and Setters
+    public int size() { return size; }
+    public int getProcessId(int row) { return processIds[row]; }
+    public int getArrivalTime(int row) { return arrivalTimes[row]; }
+    public int getBurstTime(int row) { return burstTimes[row]; }
+    public int getRemainingTime(int row) { return remainingTimes[row]; }
+    public void setRemainingTime(int row, int remainingTime) { remainingTimes[row] = remainingTime; }
+    public int getStartTime(int row) { return startTimes[row]; }
+    public void setStartTime(int row, int startTime) { startTimes[row] = startTime; }
+    public boolean isStarted(int row) { return startTimes[row] >= 0; }
+    public int getCompletionTime(int row) { return completionTimes[row]; }
+    public void setCompletionTime(int row, int completionTime) { completionTimes[row] = completionTime; }
+    public int getPriorityLevel(int row) { return priorityLevels[row]; }
+    public void setPriorityLevel(int row, int priorityLevel) { priorityLevels[row] = priorityLevel; }
+    public int getUsedAllotment(int row) { return usedAllotments[row]; }
+    public void setUsedAllotment(int row, int usedAllotment) { usedAllotments[row] = usedAllotment; }
+
+    // Same rules as Process.calculateMetrics: zero until the process completes
+    public int getTurnaroundTime(int row) {
+        return completionTimes[row] > 0 ? completionTimes[row] - arrivalTimes[row] : 0;
+    }
+
+    public int getResponseTime(int row) {
+        return completionTimes[row] > 0 ? startTimes[row] - arrivalTimes[row] : 0;
+    }
+
+    // Rows ordered by arrival time, keeping table order for equal arrivals
+    public int[] rowsByArrival() {
+        return sortRowsByArrival(new int[size], new long[size]);
+    }
+
+    // Same order as rowsByArrival(), but sorted only once per workload and into buffers reused across
+    // resets to workloads of the same size. The array is shared, so callers must not modify it
+    public int[] arrivalOrder() {
+        if (!arrivalOrderValid) {
+            if (arrivalOrder == null || arrivalOrder.length != size) {
+                arrivalOrder = new int[size];
+                arrivalKeys = new long[size];
+            }
+            sortRowsByArrival(arrivalOrder, arrivalKeys);
+            arrivalOrderValid = true;
+        }
+        return arrivalOrder;
+    }
+
+    private int[] sortRowsByArrival(int[] order, long[] keys) {
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) arrivalTimes[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    public Process toProcess(int row) {
+        Process process = new Process(processIds[row], arrivalTimes[row], burstTimes[row]);
+        process.setRemainingTime(remainingTimes[row]);
+        process.setCompletionTime(completionTimes[row]);
+        process.setPriorityLevel(priorityLevels[row]);
+        if (isStarted(row)) {
+            process.setStartTime(startTimes[row]);
+            process.setStarted(true);
+        }
+        process.calculateMetrics();
+        return process;
+    }
+
+    // Read-only List<Process> view; each element is a snapshot of its row when accessed
+    public List<Process> asProcessList() {
+        return new AbstractList<Process>() {
+            @Override
+            public Process get(int index) {
+                Objects.checkIndex(index, size);
+                return toProcess(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
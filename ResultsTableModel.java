@@ -0,0 +1,107 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+
+// Results view over a finished run's ProcessTable. Cells are read from the table's columns when the
+// JTable asks for them, so only visible rows are ever formatted and no copy of the results is kept.
+public class ResultsTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    public static final int PROCESS = 0;
+    public static final int ARRIVAL = 1;
+    public static final int BURST = 2;
+    public static final int COMPLETION = 3;
+    public static final int TURNAROUND = 4;
+    public static final int RESPONSE = 5;
+    public static final int WAITING = 6;
+
+    private static final String[] COLUMN_NAMES = {
+        "Process", "Arrival", "Burst", "Completion", "Turnaround", "Response", "Waiting"
+    };
+
+    private ProcessTable table;
+    private int[] order = new int[0]; // View row -> table row
+    private int sortColumn = -1;
+    private boolean ascending = true;
+
+    public void setProcessTable(ProcessTable table) {
+        this.table = table;
+        int size = table == null ? 0 : table.size();
+        order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        sortColumn = -1;
+        ascending = true;
+        fireTableDataChanged();
+    }
+
+    // Sorts by the column, reversing the direction when it is already the sort column; equal values keep table order
+    public void sortBy(int column) {
+        if (table == null) {
+            return;
+        }
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+
+        // Value in the high half, row in the low half; descending sorts on ~value so ties still run by row
+        long[] keys = new long[order.length];
+        for (int row = 0; row < keys.length; row++) {
+            int value = value(row, column);
+            keys[row] = ((long) (ascending ? value : ~value) << 32) | row;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        fireTableDataChanged();
+    }
+
+    public int getSortColumn() { return sortColumn; }
+    public boolean isAscending() { return ascending; }
+
+    @Override
+    public int getRowCount() {
+        return order.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return Integer.class;
+    }
+
+    @Override
+    public Object getValueAt(int viewRow, int column) {
+        return value(order[viewRow], column);
+    }
+
+    private int value(int row, int column) {
+        switch (column) {
+            case PROCESS:
+                return table.getProcessId(row);
+            case ARRIVAL:
+                return table.getArrivalTime(row);
+            case BURST:
+                return table.getBurstTime(row);
+            case COMPLETION:
+                return table.getCompletionTime(row);
+            case TURNAROUND:
+                return table.getTurnaroundTime(row);
+            case RESPONSE:
+                return table.getResponseTime(row);
+            case WAITING:
+                return table.getCompletionTime(row) > 0 ? table.getTurnaroundTime(row) - table.getBurstTime(row) : 0;
+            default:
+                throw new IllegalArgumentException("No such column: " + column);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import java.io.*;
+
+public class RoundRobinPolicy implements SchedulingPolicy {
+    private final IntRingBuffer readyQueue;
+    private final int timeQuantum;
+
+    public RoundRobinPolicy(int initialCapacity, int timeQuantum) {
+        this.readyQueue = new IntRingBuffer(initialCapacity);
+        this.timeQuantum = timeQuantum;
+    }
+
+    @Override
+    public void onArrival(int row) {
+        readyQueue.add(row);
+    }
+
+    @Override
+    public int pickNext() {
+        return readyQueue.isEmpty() ? -1 : readyQueue.poll();
+    }
+
+    @Override
+    public int size() {
+        return readyQueue.size();
+    }
+
+    @Override
+    public int timeSlice(int row) {
+        return timeQuantum;
+    }
+
+    @Override
+    public void clear() {
+        readyQueue.clear();
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        readyQueue.write(out);
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        readyQueue.read(in);
+    }
+}
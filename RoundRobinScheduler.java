@@ -1,68 +1,58 @@
+import java.io.*;
 import java.util.*;
 
 public class RoundRobinScheduler extends Scheduler {
     private int timeQuantum;
+    // Ready queue of process slots; sized for every process so re-queuing never allocates. Rebuilt
+    // on the next run after the quantum changes
+    private RoundRobinPolicy policy;
     
     public RoundRobinScheduler(List<Process> processes, int timeQuantum) {
-        super(processes);
+        this(ProcessTable.fromProcesses(processes), timeQuantum);
+    }
+
+    public RoundRobinScheduler(ProcessTable workload, int timeQuantum) {
+        super(workload);
+        this.timeQuantum = timeQuantum;
+    }
+
+    // Applies to the next run
+    public void setTimeQuantum(int timeQuantum) {
         this.timeQuantum = timeQuantum;
+        this.policy = null;
     }
 
     @Override
     public void schedule() {
-        System.out.println("\nROUND ROBIN SCHEDULING (Time Quantum: " + timeQuantum + ")");
-        System.out.println("=".repeat(50));
-        
-        List<Process> remainingProcesses = new ArrayList<>(processes);
-        Queue<Process> readyQueue = new LinkedList<>();
-        currentTime = 0;
-        
-        // Sort processes by arrival time
-        remainingProcesses.sort((p1, p2) -> Integer.compare(p1.getArrivalTime(), p2.getArrivalTime()));
+        startRun();
+        if (verbose) {
+            System.out.println("\nROUND ROBIN SCHEDULING (Time Quantum: " + timeQuantum + ")");
+            System.out.println("=".repeat(50));
+        }
         
-        while (!remainingProcesses.isEmpty() || !readyQueue.isEmpty()) {
-            // Add arrived processes to ready queue
-            Iterator<Process> iterator = remainingProcesses.iterator();
-            while (iterator.hasNext()) {
-                Process p = iterator.next();
-                if (p.getArrivalTime() <= currentTime) {
-                    readyQueue.add(p);
-                    iterator.remove();
-                }
-            }
-            
-            if (readyQueue.isEmpty()) {
-                // No process in ready queue, wait for next arrival
-                if (!remainingProcesses.isEmpty()) {
-                    Process nextProcess = remainingProcesses.get(0);
-                    addToGanttChart("IDLE", nextProcess.getArrivalTime() - currentTime);
-                    currentTime = nextProcess.getArrivalTime();
-                }
-                continue;
-            }
-            
-            // Get process from ready queue
-            Process currentProcess = readyQueue.poll();
-            
-            // Set start time if process hasn't started yet
-            if (!currentProcess.isStarted()) {
-                currentProcess.setStartTime(currentTime);
-                currentProcess.setStarted(true);
-            }
-            
-            // Execute process for time quantum or remaining time, whichever is smaller
-            int executionTime = Math.min(timeQuantum, currentProcess.getRemainingTime());
-            addToGanttChart(currentProcess, executionTime);
-            currentTime += executionTime;
-            currentProcess.setRemainingTime(currentProcess.getRemainingTime() - executionTime);
-            
-            // Check if process is completed
-            if (currentProcess.getRemainingTime() == 0) {
-                currentProcess.setCompletionTime(currentTime);
-            } else {
-                // Add back to ready queue
-                readyQueue.add(currentProcess);
-            }
+        // Each process runs for at most one quantum, then goes to the back of the ready queue behind
+        // the processes that arrived meanwhile
+        runToCompletion();
+    }
+
+    @Override
+    protected SchedulingPolicy preparePolicy() {
+        if (policy == null) {
+            policy = new RoundRobinPolicy(table.size(), timeQuantum);
+        }
+        return policy;
+    }
+
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        out.writeInt(timeQuantum);
+    }
+
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        int savedQuantum = in.readInt();
+        if (savedQuantum != timeQuantum) {
+            throw new IOException("Checkpoint was taken with time quantum " + savedQuantum + ", not " + timeQuantum);
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,49 @@
+import java.io.*;
+
+public class SJFPolicy implements SchedulingPolicy {
+    private final IntHeap readyQueue;
+
+    public SJFPolicy(ProcessTable table, int initialCapacity) {
+        // Ordered by (burst, arrival, id) so ties are deterministic
+        this.readyQueue = new IntHeap(initialCapacity, (a, b) -> {
+            int cmp = Integer.compare(table.getBurstTime(a), table.getBurstTime(b));
+            if (cmp == 0) {
+                cmp = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+            }
+            if (cmp == 0) {
+                cmp = Integer.compare(table.getProcessId(a), table.getProcessId(b));
+            }
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+    }
+
+    @Override
+    public void onArrival(int row) {
+        readyQueue.add(row);
+    }
+
+    @Override
+    public int pickNext() {
+        return readyQueue.isEmpty() ? -1 : readyQueue.poll();
+    }
+
+    @Override
+    public int size() {
+        return readyQueue.size();
+    }
+
+    @Override
+    public void clear() {
+        readyQueue.clear();
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        readyQueue.write(out);
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        readyQueue.read(in);
+    }
+}
@@ -1,61 +1,42 @@
+import java.io.*;
 import java.util.*;
 
 public class SJFScheduler extends Scheduler {
+    // Ready processes ordered by (burst, arrival, id) so ties are deterministic; kept across runs
+    private final SJFPolicy policy;
     
     public SJFScheduler(List<Process> processes) {
-        super(processes);
+        this(ProcessTable.fromProcesses(processes));
+    }
+
+    public SJFScheduler(ProcessTable workload) {
+        super(workload);
+        this.policy = new SJFPolicy(table, table.size());
     }
 
     @Override
     public void schedule() {
-        System.out.println("\nSHORTEST JOB FIRST (NON-PREEMPTIVE) SCHEDULING");
-        System.out.println("=".repeat(55));
-        
-        List<Process> remainingProcesses = new ArrayList<>(processes);
-        currentTime = 0;
-        
-        while (!remainingProcesses.isEmpty()) {
-            // Find processes that have arrived
-            List<Process> arrivedProcesses = new ArrayList<>();
-            for (Process p : remainingProcesses) {
-                if (p.getArrivalTime() <= currentTime) {
-                    arrivedProcesses.add(p);
-                }
-            }
-            
-            if (arrivedProcesses.isEmpty()) {
-                // No process has arrived yet, wait
-                Process nextProcess = remainingProcesses.stream()
-                    .min((p1, p2) -> Integer.compare(p1.getArrivalTime(), p2.getArrivalTime()))
-                    .orElse(null);
-                
-                if (nextProcess != null) {
-                    addToGanttChart("IDLE", nextProcess.getArrivalTime() - currentTime);
-                    currentTime = nextProcess.getArrivalTime();
-                }
-                continue;
-            }
-            
-            // Select the process with shortest burst time
-            Process selectedProcess = arrivedProcesses.stream()
-                .min((p1, p2) -> Integer.compare(p1.getBurstTime(), p2.getBurstTime()))
-                .orElse(null);
-            
-            if (selectedProcess != null) {
-                // Set start time if process hasn't started yet
-                if (!selectedProcess.isStarted()) {
-                    selectedProcess.setStartTime(currentTime);
-                    selectedProcess.setStarted(true);
-                }
-                
-                // Execute the process
-                addToGanttChart(selectedProcess, selectedProcess.getBurstTime());
-                currentTime += selectedProcess.getBurstTime();
-                selectedProcess.setCompletionTime(currentTime);
-                
-                // Remove from remaining processes
-                remainingProcesses.remove(selectedProcess);
-            }
+        startRun();
+        if (verbose) {
+            System.out.println("\nSHORTEST JOB FIRST (NON-PREEMPTIVE) SCHEDULING");
+            System.out.println("=".repeat(55));
         }
+        
+        // Whenever the CPU frees up, the ready process with the shortest burst runs to completion
+        runToCompletion();
+    }
+
+    @Override
+    protected SchedulingPolicy preparePolicy() {
+        return policy;
+    }
+
+    // No settings to check
+    @Override
+    protected void writeState(DataOutput out) {
+    }
+
+    @Override
+    protected void readState(DataInput in) {
     }
 } 
\ No newline at end of file
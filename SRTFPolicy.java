@@ -0,0 +1,66 @@
+import java.io.*;
+
+public class SRTFPolicy implements SchedulingPolicy {
+    private final IntHeap.SlotComparator order;
+    private final IntHeap readyQueue;
+
+    public SRTFPolicy(ProcessTable table, int initialCapacity) {
+        this(table, initialCapacity, false);
+    }
+
+    // Keyed on remaining time; ties go to the earlier row. When rows are reused as processes finish, row
+    // order says nothing about age, so ties go to the earlier arrival and then the lower process id instead
+    public SRTFPolicy(ProcessTable table, int initialCapacity, boolean reusedRows) {
+        this.order = (a, b) -> {
+            int cmp = Integer.compare(table.getRemainingTime(a), table.getRemainingTime(b));
+            if (cmp == 0 && reusedRows) {
+                cmp = Integer.compare(table.getArrivalTime(a), table.getArrivalTime(b));
+                if (cmp == 0) {
+                    cmp = Integer.compare(table.getProcessId(a), table.getProcessId(b));
+                }
+            }
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        };
+        this.readyQueue = new IntHeap(initialCapacity, order);
+    }
+
+    @Override
+    public void onArrival(int row) {
+        readyQueue.add(row);
+    }
+
+    @Override
+    public int pickNext() {
+        return readyQueue.isEmpty() ? -1 : readyQueue.poll();
+    }
+
+    @Override
+    public int size() {
+        return readyQueue.size();
+    }
+
+    @Override
+    public boolean isPreemptive() {
+        return true;
+    }
+
+    @Override
+    public boolean shouldPreempt(int running) {
+        return !readyQueue.isEmpty() && order.compare(readyQueue.peek(), running) < 0;
+    }
+
+    @Override
+    public void clear() {
+        readyQueue.clear();
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        readyQueue.write(out);
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        readyQueue.read(in);
+    }
+}
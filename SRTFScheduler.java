@@ -1,64 +1,43 @@
+import java.io.*;
 import java.util.*;
 
 public class SRTFScheduler extends Scheduler {
-    
+    // Ready processes keyed on remaining time; ties go to the earlier process in the input
+    private final SRTFPolicy policy;
+
     public SRTFScheduler(List<Process> processes) {
-        super(processes);
+        this(ProcessTable.fromProcesses(processes));
+    }
+
+    public SRTFScheduler(ProcessTable workload) {
+        super(workload);
+        this.policy = new SRTFPolicy(table, table.size());
     }
 
     @Override
     public void schedule() {
-        System.out.println("\nSHORTEST REMAINING TIME FIRST (PREEMPTIVE) SCHEDULING");
-        System.out.println("=".repeat(60));
-        
-        List<Process> remainingProcesses = new ArrayList<>(processes);
-        currentTime = 0;
-        
-        while (!remainingProcesses.isEmpty()) {
-            // Find processes that have arrived
-            List<Process> arrivedProcesses = new ArrayList<>();
-            for (Process p : remainingProcesses) {
-                if (p.getArrivalTime() <= currentTime) {
-                    arrivedProcesses.add(p);
-                }
-            }
-            
-            if (arrivedProcesses.isEmpty()) {
-                // No process has arrived yet, wait
-                Process nextProcess = remainingProcesses.stream()
-                    .min((p1, p2) -> Integer.compare(p1.getArrivalTime(), p2.getArrivalTime()))
-                    .orElse(null);
-                
-                if (nextProcess != null) {
-                    addToGanttChart("IDLE", nextProcess.getArrivalTime() - currentTime);
-                    currentTime = nextProcess.getArrivalTime();
-                }
-                continue;
-            }
-            
-            // Select the process with shortest remaining time
-            Process selectedProcess = arrivedProcesses.stream()
-                .min((p1, p2) -> Integer.compare(p1.getRemainingTime(), p2.getRemainingTime()))
-                .orElse(null);
-            
-            if (selectedProcess != null) {
-                // Set start time if process hasn't started yet
-                if (!selectedProcess.isStarted()) {
-                    selectedProcess.setStartTime(currentTime);
-                    selectedProcess.setStarted(true);
-                }
-                
-                // Execute for 1 time unit
-                addToGanttChart(selectedProcess, 1);
-                currentTime++;
-                selectedProcess.setRemainingTime(selectedProcess.getRemainingTime() - 1);
-                
-                // Check if process is completed
-                if (selectedProcess.getRemainingTime() == 0) {
-                    selectedProcess.setCompletionTime(currentTime);
-                    remainingProcesses.remove(selectedProcess);
-                }
-            }
+        startRun();
+        if (verbose) {
+            System.out.println("\nSHORTEST REMAINING TIME FIRST (PREEMPTIVE) SCHEDULING");
+            System.out.println("=".repeat(60));
         }
+
+        // Only wakes up on the next arrival or the running process's completion; an arrival with a
+        // shorter remaining time preempts the running process
+        runToCompletion();
+    }
+
+    @Override
+    protected SchedulingPolicy preparePolicy() {
+        return policy;
+    }
+
+    // No settings to check
+    @Override
+    protected void writeState(DataOutput out) {
+    }
+
+    @Override
+    protected void readState(DataInput in) {
     }
 } 
\ No newline at end of file
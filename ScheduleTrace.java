@@ -0,0 +1,280 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+// Read side of the binary schedule trace written by ScheduleTraceWriter. Only the header and the block index
+// are read on open; segment blocks are memory-mapped and decoded when a time window is asked for, so a trace
+// far larger than the heap can be browsed a screenful at a time.
+//
+// Layout (big-endian):
+//   header   "CPUT" magic, version, long process count, long segment count, end time,
+//            segment block count, process block count, long index offset (padded to HEADER_BYTES)
+//   blocks   segment and process blocks in the order they filled up
+//   index    per segment block: start time, end time, long offset, byte length, segment count;
+//            then per process block: long offset, record count
+// A segment block holds up to SEGMENTS_PER_BLOCK segments as four varints each: zigzag process id delta,
+// queue level + 1, gap since the previous segment's end and length. Deltas restart at every block, so
+// each block decodes on its own. Process blocks hold fixed records of (id, arrival, burst, start, completion).
+public class ScheduleTrace implements Closeable {
+    public static final int MAGIC = 0x43505554;
+    public static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 48;
+    static final int BLOCK_BYTES = 1 << 16;
+    static final int SEGMENTS_PER_BLOCK = 4096;
+    static final int PROCESS_RECORD_BYTES = 20;
+    static final int SEGMENT_INDEX_BYTES = 24;
+    static final int PROCESS_INDEX_BYTES = 12;
+
+    private static final long MAP_BYTES = 64L * 1024 * 1024; // Mapped at once, so nearby windows reuse it
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long processCount;
+    private final long segmentCount;
+    private final int endTime;
+
+    private final int[] blockStarts;
+    private final int[] blockEnds;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final int[] blockCounts;
+    private final long[] processBlockOffsets;
+    private final int[] processBlockCounts;
+
+    private MappedByteBuffer mapped;
+    private long mappedOffset;
+    private long mappedEnd;
+    private int cursor;   // Read position in mapped while decoding a block
+    private int blockEnd; // Position in mapped just past that block
+
+    private ScheduleTrace(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        ByteBuffer header = readFully(0, HEADER_BYTES);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a schedule trace: " + path);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported schedule trace version " + version + ": " + path);
+        }
+        processCount = header.getLong();
+        segmentCount = header.getLong();
+        endTime = header.getInt();
+        int segmentBlocks = header.getInt();
+        int processBlocks = header.getInt();
+        long indexOffset = header.getLong();
+        long indexBytes = (long) segmentBlocks * SEGMENT_INDEX_BYTES + (long) processBlocks * PROCESS_INDEX_BYTES;
+        if (segmentBlocks < 0 || processBlocks < 0 || indexOffset < HEADER_BYTES
+                || indexOffset + indexBytes > channel.size() || indexBytes > Integer.MAX_VALUE) {
+            throw new IOException("Truncated or unfinished schedule trace: " + path);
+        }
+
+        blockStarts = new int[segmentBlocks];
+        blockEnds = new int[segmentBlocks];
+        blockOffsets = new long[segmentBlocks];
+        blockLengths = new int[segmentBlocks];
+        blockCounts = new int[segmentBlocks];
+        processBlockOffsets = new long[processBlocks];
+        processBlockCounts = new int[processBlocks];
+        ByteBuffer index = readFully(indexOffset, (int) indexBytes);
+        for (int b = 0; b < segmentBlocks; b++) {
+            blockStarts[b] = index.getInt();
+            blockEnds[b] = index.getInt();
+            blockOffsets[b] = index.getLong();
+            blockLengths[b] = index.getInt();
+            blockCounts[b] = index.getInt();
+            if (blockOffsets[b] < HEADER_BYTES || blockLengths[b] < 0 || blockOffsets[b] + blockLengths[b] > indexOffset
+                    || blockCounts[b] < 0 || blockCounts[b] > SEGMENTS_PER_BLOCK || blockStarts[b] > blockEnds[b]
+                    || (b > 0 && blockStarts[b] < blockEnds[b - 1])) {
+                throw new IOException("Corrupt schedule trace index: segment block " + b + " of " + segmentBlocks
+                        + " at byte " + blockOffsets[b] + ": " + path);
+            }
+        }
+        long records = 0;
+        for (int b = 0; b < processBlocks; b++) {
+            processBlockOffsets[b] = index.getLong();
+            processBlockCounts[b] = index.getInt();
+            if (processBlockOffsets[b] < HEADER_BYTES || processBlockCounts[b] < 0
+                    || processBlockOffsets[b] + (long) processBlockCounts[b] * PROCESS_RECORD_BYTES > indexOffset) {
+                throw new IOException("Corrupt schedule trace index: process block " + b + " of " + processBlocks
+                        + " at byte " + processBlockOffsets[b] + ": " + path);
+            }
+            records += processBlockCounts[b];
+        }
+        if (records != processCount) {
+            throw new IOException("Corrupt schedule trace: header counts " + processCount + " processes but the blocks hold "
+                    + records + ": " + path);
+        }
+    }
+
+    public static ScheduleTrace open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ScheduleTrace(path, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Getters
+    public Path getPath() { return path; }
+    public long getProcessCount() { return processCount; }
+    public long getSegmentCount() { return segmentCount; }
+    public int getStartTime() { return blockStarts.length > 0 ? blockStarts[0] : 0; }
+    public int getEndTime() { return endTime; }
+
+    // Replaces the window's contents with the segments overlapping [from, to), clipped to that range. Only
+    // the blocks covering the range are mapped and decoded; time between recorded segments shows as idle.
+    // A block that does not decode to its indexed segments fails with an IOException naming it
+    public void readWindow(int from, int to, Timeline window) throws IOException {
+        window.clear(from);
+        int first = blockAt(from);
+        if (first < 0 || from >= to) {
+            return;
+        }
+        int last = first;
+        while (last + 1 < blockStarts.length && blockStarts[last + 1] < to) {
+            last++;
+        }
+        map(blockOffsets[first], blockOffsets[last] + blockLengths[last]);
+
+        boolean started = false;
+        for (int b = first; b <= last; b++) {
+            cursor = (int) (blockOffsets[b] - mappedOffset);
+            blockEnd = cursor + blockLengths[b];
+            int processId = 0;
+            int end = blockStarts[b];
+            for (int i = 0; i < blockCounts[b]; i++) {
+                int delta = readVarint(b, i);
+                processId += (delta >>> 1) ^ -(delta & 1);
+                int queueLevel = readVarint(b, i) - 1;
+                long segmentStart = (long) end + readVarint(b, i);
+                long segmentEnd = segmentStart + readVarint(b, i);
+                if (segmentStart < end || segmentEnd <= segmentStart || segmentEnd > blockEnds[b]) {
+                    throw corrupt(b, i, "time " + segmentStart + "-" + segmentEnd + " outside block time "
+                            + blockStarts[b] + "-" + blockEnds[b]);
+                }
+                int start = (int) segmentStart;
+                end = (int) segmentEnd;
+                if (start >= to) {
+                    return;
+                }
+                if (end <= from) {
+                    continue;
+                }
+                int clippedStart = Math.max(start, from);
+                if (!started) {
+                    window.clear(clippedStart);
+                    started = true;
+                }
+                window.appendIdle(clippedStart - window.getEndTime());
+                window.append(processId, queueLevel, Math.min(end, to) - clippedStart);
+            }
+        }
+    }
+
+    // Every process record with its start and completion times; this one does load onto the heap
+    public ProcessTable readProcesses() throws IOException {
+        if (processCount > Integer.MAX_VALUE - 8) {
+            throw new IOException("Too many processes to load: " + processCount);
+        }
+        int count = (int) processCount;
+        int[] processIds = new int[count];
+        int[] arrivalTimes = new int[count];
+        int[] burstTimes = new int[count];
+        int[] startTimes = new int[count];
+        int[] completionTimes = new int[count];
+        int row = 0;
+        for (int b = 0; b < processBlockOffsets.length; b++) {
+            ByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, processBlockOffsets[b],
+                    (long) processBlockCounts[b] * PROCESS_RECORD_BYTES);
+            for (int i = 0; i < processBlockCounts[b]; i++, row++) {
+                processIds[row] = records.getInt();
+                arrivalTimes[row] = records.getInt();
+                burstTimes[row] = records.getInt();
+                startTimes[row] = records.getInt();
+                completionTimes[row] = records.getInt();
+            }
+        }
+        ProcessTable table = ProcessTable.fromColumns(processIds, arrivalTimes, burstTimes);
+        for (row = 0; row < count; row++) {
+            table.setStartTime(row, startTimes[row]);
+            table.setCompletionTime(row, completionTimes[row]);
+        }
+        return table;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+
+    // First block ending after the given time, or -1 if the trace ends before it
+    private int blockAt(int time) {
+        int low = 0;
+        int high = blockEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockEnds[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < blockEnds.length ? low : -1;
+    }
+
+    // Keeps the current mapping when it already covers [start, end)
+    private void map(long start, long end) throws IOException {
+        if (mapped != null && start >= mappedOffset && end <= mappedEnd) {
+            return;
+        }
+        long length = Math.max(end - start, Math.min(MAP_BYTES, channel.size() - start));
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Time window spans more than 2 GB of segments: " + path);
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        mappedOffset = start;
+        mappedEnd = start + length;
+    }
+
+    // Never reads past the block being decoded; a value is at most five bytes, 32 bits
+    private int readVarint(int block, int segment) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (cursor >= blockEnd) {
+                throw corrupt(block, segment, "block ends inside a varint");
+            }
+            b = mapped.get(cursor++);
+            if (shift == 28 && (b & 0xF0) != 0) {
+                throw corrupt(block, segment, "varint longer than an int");
+            }
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private IOException corrupt(int block, int segment, String reason) {
+        return new IOException(String.format("Corrupt schedule trace %s: segment %d of block %d (byte %d): %s",
+                path, segment, block, mappedOffset + cursor, reason));
+    }
+
+    private ByteBuffer readFully(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Truncated schedule trace: " + path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,217 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+// Writes a schedule trace (see ScheduleTrace for the layout) while the schedule is produced. Segments and
+// process records are staged in one block-sized buffer each and appended to the channel as blocks fill up,
+// so only the small block index stays on the heap however long the run is. Feed it as an
+// OnlineSimulator.Listener to record a live run, or use write() for a finished scheduler.
+public class ScheduleTraceWriter implements OnlineSimulator.Listener, Closeable {
+    private static final int MAX_SEGMENT_BYTES = 20; // Four varints of at most five bytes
+
+    private final FileChannel channel;
+    private final ByteBuffer segments = ByteBuffer.allocateDirect(ScheduleTrace.BLOCK_BYTES);
+    private final ByteBuffer processes = ByteBuffer.allocateDirect(ScheduleTrace.BLOCK_BYTES);
+    private long position = ScheduleTrace.HEADER_BYTES;
+    private boolean closed;
+
+    // Segment block being filled; previous id and end are what the next segment is delta-encoded against
+    private int blockSegments;
+    private int blockStart;
+    private int previousId;
+    private int previousEnd;
+    private long segmentCount;
+    private int endTime;
+    private boolean anySegments;
+
+    private int processBlockRecords;
+    private long processCount;
+
+    // Block index, written after the last block
+    private int[] segmentBlockStarts = new int[16];
+    private int[] segmentBlockEnds = new int[16];
+    private long[] segmentBlockOffsets = new long[16];
+    private int[] segmentBlockLengths = new int[16];
+    private int[] segmentBlockCounts = new int[16];
+    private int segmentBlocks;
+    private long[] processBlockOffsets = new long[16];
+    private int[] processBlockCounts = new int[16];
+    private int processBlocks;
+
+    public ScheduleTraceWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    // Whole finished run: the scheduler's process table followed by its timeline
+    public static void write(Scheduler scheduler, Path path) throws IOException {
+        try (ScheduleTraceWriter writer = new ScheduleTraceWriter(path)) {
+            ProcessTable table = scheduler.getProcessTable();
+            for (int row = 0; row < table.size(); row++) {
+                writer.writeProcess(table.getProcessId(row), table.getArrivalTime(row), table.getBurstTime(row),
+                        table.getStartTime(row), table.getCompletionTime(row));
+            }
+            Timeline timeline = scheduler.getTimeline();
+            for (int s = 0; s < timeline.segmentCount(); s++) {
+                writer.writeSegment(timeline.getProcessId(s), timeline.getQueueLevel(s),
+                        timeline.getStart(s), timeline.getEnd(s));
+            }
+        }
+    }
+
+    // Segments must come in time order without overlapping; gaps between them are allowed
+    public void writeSegment(int processId, int queueLevel, int start, int end) throws IOException {
+        if (end <= start || (anySegments && start < previousEnd)) {
+            throw new IllegalArgumentException("Segment " + start + "-" + end + " of P" + processId
+                    + " is empty or overlaps the previous one ending at " + previousEnd);
+        }
+        if (blockSegments == ScheduleTrace.SEGMENTS_PER_BLOCK || segments.remaining() < MAX_SEGMENT_BYTES) {
+            flushSegments();
+        }
+        if (blockSegments == 0) {
+            blockStart = start;
+            previousId = 0;
+            previousEnd = start;
+        }
+        putVarint(segments, zigZag(processId - previousId));
+        putVarint(segments, queueLevel + 1);
+        putVarint(segments, start - previousEnd);
+        putVarint(segments, end - start);
+        previousId = processId;
+        previousEnd = end;
+        blockSegments++;
+        segmentCount++;
+        endTime = end;
+        anySegments = true;
+    }
+
+    public void writeProcess(int processId, int arrivalTime, int burstTime, int startTime, int completionTime)
+            throws IOException {
+        if (processes.remaining() < ScheduleTrace.PROCESS_RECORD_BYTES) {
+            flushProcesses();
+        }
+        processes.putInt(processId).putInt(arrivalTime).putInt(burstTime).putInt(startTime).putInt(completionTime);
+        processBlockRecords++;
+        processCount++;
+    }
+
+    @Override
+    public void onSegment(int processId, int queueLevel, int start, int end) {
+        try {
+            writeSegment(processId, queueLevel, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onCompletion(int processId, int arrivalTime, int burstTime, int startTime, int completionTime) {
+        try {
+            writeProcess(processId, arrivalTime, burstTime, startTime, completionTime);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Flushes the open blocks, appends the block index and fills in the header
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushSegments();
+            flushProcesses();
+
+            long indexOffset = position;
+            ByteBuffer index = ByteBuffer.allocate(segmentBlocks * ScheduleTrace.SEGMENT_INDEX_BYTES
+                    + processBlocks * ScheduleTrace.PROCESS_INDEX_BYTES);
+            for (int b = 0; b < segmentBlocks; b++) {
+                index.putInt(segmentBlockStarts[b]).putInt(segmentBlockEnds[b])
+                     .putLong(segmentBlockOffsets[b]).putInt(segmentBlockLengths[b]).putInt(segmentBlockCounts[b]);
+            }
+            for (int b = 0; b < processBlocks; b++) {
+                index.putLong(processBlockOffsets[b]).putInt(processBlockCounts[b]);
+            }
+            index.flip();
+            writeFully(index, indexOffset);
+
+            ByteBuffer header = ByteBuffer.allocate(ScheduleTrace.HEADER_BYTES);
+            header.putInt(ScheduleTrace.MAGIC).putInt(ScheduleTrace.VERSION)
+                  .putLong(processCount).putLong(segmentCount).putInt(endTime)
+                  .putInt(segmentBlocks).putInt(processBlocks).putLong(indexOffset);
+            header.position(0);
+            writeFully(header, 0);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flushSegments() throws IOException {
+        if (blockSegments == 0) {
+            return;
+        }
+        if (segmentBlocks == segmentBlockStarts.length) {
+            int capacity = segmentBlocks + (segmentBlocks >> 1) + 1;
+            segmentBlockStarts = Arrays.copyOf(segmentBlockStarts, capacity);
+            segmentBlockEnds = Arrays.copyOf(segmentBlockEnds, capacity);
+            segmentBlockOffsets = Arrays.copyOf(segmentBlockOffsets, capacity);
+            segmentBlockLengths = Arrays.copyOf(segmentBlockLengths, capacity);
+            segmentBlockCounts = Arrays.copyOf(segmentBlockCounts, capacity);
+        }
+        segmentBlockStarts[segmentBlocks] = blockStart;
+        segmentBlockEnds[segmentBlocks] = previousEnd;
+        segmentBlockOffsets[segmentBlocks] = position;
+        segmentBlockLengths[segmentBlocks] = segments.position();
+        segmentBlockCounts[segmentBlocks] = blockSegments;
+        segmentBlocks++;
+        blockSegments = 0;
+        append(segments);
+    }
+
+    private void flushProcesses() throws IOException {
+        if (processBlockRecords == 0) {
+            return;
+        }
+        if (processBlocks == processBlockOffsets.length) {
+            int capacity = processBlocks + (processBlocks >> 1) + 1;
+            processBlockOffsets = Arrays.copyOf(processBlockOffsets, capacity);
+            processBlockCounts = Arrays.copyOf(processBlockCounts, capacity);
+        }
+        processBlockOffsets[processBlocks] = position;
+        processBlockCounts[processBlocks] = processBlockRecords;
+        processBlocks++;
+        processBlockRecords = 0;
+        append(processes);
+    }
+
+    private void append(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        long offset = position;
+        position += buffer.remaining();
+        writeFully(buffer, offset);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    // Small magnitudes of either sign encode in few bytes
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
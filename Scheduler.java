@@ -1,84 +1,263 @@
+import java.io.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 public abstract class Scheduler {
-    protected List<Process> processes;
-    protected List<String> ganttChart;
-    protected int currentTime;
+    protected ProcessTable table;
+    protected List<Process> processes; // Read-only view of the table
+    protected Timeline timeline;
+    protected List<String> ganttChart; // Per-tick view of the timeline
     protected double avgTurnaroundTime;
     protected double avgResponseTime;
+    protected SchedulingMetrics metrics;  // Updated as processes complete
+    protected boolean verbose = true; // Print the algorithm banner when scheduling
+    private final CpuCore core;       // Shared event kernel; subclasses only supply its policy
+    private boolean hasRun;           // schedule() has filled the run state since the last reset
+    private boolean resumed;          // resume() loaded state that the next schedule() continues from
+
+    // Checkpoints are written at safe points, before each kernel step; the clock is only read, and
+    // progress only published, every SAFE_POINTS_PER_CLOCK_CHECK of them
+    private static final int SAFE_POINTS_PER_CLOCK_CHECK = 1024;
+    private Path checkpointPath;
+    private long checkpointIntervalNanos;
+    private long lastCheckpointNanos;
+    private int safePointsUntilClockCheck;
+    private volatile boolean checkpointRequested;
+
+    // Written by the scheduling thread and read by others (e.g. a UI polling progress)
+    private volatile boolean cancelled;
+    private volatile long publishedWork;
+    private volatile int publishedTime;
+    // The scheduling thread's own copies, updated on every completion without a memory fence
+    private long completedWork; // Total burst time of completed processes
+    private int progressTime;   // Simulated time at the latest completion
 
     public Scheduler(List<Process> processes) {
-        this.processes = new ArrayList<>();
-        for (Process p : processes) {
-            this.processes.add(new Process(p.getProcessId(), p.getArrivalTime(), p.getBurstTime()));
-        }
-        this.ganttChart = new ArrayList<>();
-        this.currentTime = 0;
+        this(ProcessTable.fromProcesses(processes));
+    }
+
+    public Scheduler(ProcessTable workload) {
+        this.table = workload.newRun();
+        this.processes = table.asProcessList();
+        this.timeline = new Timeline();
+        this.ganttChart = timeline.asTickList();
+        this.metrics = new SchedulingMetrics();
+        this.core = new CpuCore(0, table, null, null, timeline, metrics);
+        core.setCompletionListener(this::recordProgress);
+        core.setSafePoint(this::safePoint);
     }
 
     public abstract void schedule();
 
-    public void displayResults() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("SCHEDULING RESULTS");
-        System.out.println("=".repeat(60));
-        
-        // Display Gantt Chart
-        System.out.println("\nGANTT CHART:");
-        System.out.println("-".repeat(60));
-        for (int i = 0; i < ganttChart.size(); i++) {
-            System.out.print("| " + ganttChart.get(i) + " ");
-        }
-        System.out.println("|");
-        System.out.print("0");
-        for (int i = 1; i <= ganttChart.size(); i++) {
-            System.out.printf("%" + (ganttChart.get(i-1).length() + 2) + "d", i);
+    // Policy for the next run; the kernel empties or restores its ready queue. Subclasses keep it
+    // across runs and only build a new one when their settings changed
+    protected abstract SchedulingPolicy preparePolicy();
+
+    // Algorithm-specific part of a checkpoint: the settings, checked on resume. The kernel stores the ready queue
+    protected abstract void writeState(DataOutput out) throws IOException;
+
+    protected abstract void readState(DataInput in) throws IOException;
+
+    // Prepares this scheduler to run another workload, keeping its buffers so repeated runs on
+    // workloads of the same size allocate almost nothing
+    public void reset(ProcessTable workload) {
+        table.reset(workload);
+        clearRun();
+        hasRun = false;
+        resumed = false;
+    }
+
+    public void reset(List<Process> processes) {
+        reset(ProcessTable.fromProcesses(processes));
+    }
+
+    // Called first in schedule(); running again without a reset starts over on the same workload, and
+    // the first run after resume() continues from the checkpoint
+    protected void startRun() {
+        lastCheckpointNanos = System.nanoTime();
+        safePointsUntilClockCheck = SAFE_POINTS_PER_CLOCK_CHECK;
+        if (resumed) {
+            resumed = false;
+            return;
         }
-        System.out.println();
-
-        // Display Process Details
-        System.out.println("\nPROCESS DETAILS:");
-        System.out.println("-".repeat(80));
-        System.out.printf("%-10s %-12s %-10s %-12s %-12s %-12s%n", 
-                         "Process", "Arrival", "Burst", "Completion", "Turnaround", "Response");
-        System.out.println("-".repeat(80));
-        
-        for (Process p : processes) {
-            p.calculateMetrics();
-            System.out.printf("%-10s %-12d %-10d %-12d %-12d %-12d%n",
-                             "P" + p.getProcessId(), p.getArrivalTime(), p.getBurstTime(),
-                             p.getCompletionTime(), p.getTurnaroundTime(), p.getResponseTime());
+        if (hasRun) {
+            table.reset(table);
+            clearRun();
         }
+        hasRun = true;
+        core.reset(preparePolicy());
+        int[] arrivalOrder = table.arrivalOrder();
+        core.assignAll(arrivalOrder, 0, arrivalOrder.length);
+    }
 
-        // Calculate and display averages
-        calculateAverages();
-        System.out.println("-".repeat(80));
-        System.out.printf("%-10s %-12s %-10s %-12s %-12.2f %-12.2f%n",
-                         "", "", "", "AVERAGE:", avgTurnaroundTime, avgResponseTime);
+    // Runs the workload on the shared kernel until every process has completed
+    protected void runToCompletion() {
+        core.advance(Integer.MAX_VALUE);
+        publishProgress();
     }
 
-    protected void calculateAverages() {
-        double totalTurnaround = 0;
-        double totalResponse = 0;
-        
-        for (Process p : processes) {
-            totalTurnaround += p.getTurnaroundTime();
-            totalResponse += p.getResponseTime();
+    // While schedule() runs, its state is written to the path about every interval, when
+    // requestCheckpoint() is called and before it stops for a cancel, so the run can be continued later
+    // with resume(). A null path turns checkpointing off
+    public void setCheckpointing(Path path, long intervalMillis) {
+        checkpointPath = path;
+        checkpointIntervalNanos = Math.max(0, intervalMillis) * 1_000_000L;
+    }
+
+    // Asks a running schedule() to write a checkpoint at its next safe point
+    public void requestCheckpoint() {
+        checkpointRequested = true;
+    }
+
+    // Writes the run state as it is now; call it from the scheduling thread or while schedule() isn't running
+    public void writeCheckpoint(Path path) throws IOException {
+        if (!hasRun) {
+            throw new IllegalStateException("No run to checkpoint; call schedule() or resume() first");
         }
-        
-        avgTurnaroundTime = totalTurnaround / processes.size();
-        avgResponseTime = totalResponse / processes.size();
+        CheckpointFile.write(path, out -> {
+            out.writeUTF(getClass().getSimpleName());
+            out.writeLong(table.workloadHash());
+            out.writeLong(completedWork);
+            out.writeInt(progressTime);
+            table.writeRunState(out);
+            timeline.write(out);
+            metrics.write(out);
+            writeState(out);
+            core.write(out);
+        });
+        checkpointRequested = false;
+        lastCheckpointNanos = System.nanoTime();
     }
 
-    protected void addToGanttChart(Process process, int duration) {
-        for (int i = 0; i < duration; i++) {
-            ganttChart.add(process.toString());
+    // Loads a checkpoint taken by the same algorithm with the same settings on the same workload. The next
+    // schedule() continues from it and ends with exactly the results of an uninterrupted run
+    public void resume(Path path) throws IOException {
+        try (DataInputStream in = CheckpointFile.open(path)) {
+            String algorithm = in.readUTF();
+            if (!algorithm.equals(getClass().getSimpleName())) {
+                throw new IOException("Checkpoint is for " + algorithm + ", not " + getClass().getSimpleName());
+            }
+            if (in.readLong() != table.workloadHash()) {
+                throw new IOException("Checkpoint was taken on a different workload");
+            }
+            clearRun();
+            completedWork = in.readLong();
+            progressTime = in.readInt();
+            table.readRunState(in);
+            timeline.read(in);
+            metrics.read(in);
+            readState(in);
+            core.read(in, preparePolicy());
+        } catch (IOException | RuntimeException e) {
+            // Don't leave a half-loaded run behind
+            table.reset(table);
+            clearRun();
+            hasRun = false;
+            resumed = false;
+            throw e;
         }
+        hasRun = true;
+        resumed = true;
+        publishProgress();
+    }
+
+    private void clearRun() {
+        timeline.clear();
+        metrics.clear();
+        cancelled = false;
+        completedWork = 0;
+        progressTime = 0;
+        publishProgress();
+    }
+
+    public void displayResults() {
+        new ConsoleReporter().print(this);
+    }
+
+    public String getGanttChartTitle() {
+        return "GANTT CHART:";
+    }
+
+    public Timeline getTimeline() {
+        return timeline;
     }
 
-    protected void addToGanttChart(String process, int duration) {
-        for (int i = 0; i < duration; i++) {
-            ganttChart.add(process);
+    public ProcessTable getProcessTable() {
+        return table;
+    }
+
+    public SchedulingMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Asks a running schedule() to stop; it throws CancellationException at its next loop iteration
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public long getCompletedWork() {
+        return publishedWork;
+    }
+
+    public int getProgressTime() {
+        return publishedTime;
+    }
+
+    // Called by the kernel before every step, where the run state is complete: writes a checkpoint if
+    // one is due (always before stopping for a cancel), then checks for cancellation
+    private void safePoint() {
+        boolean periodic = --safePointsUntilClockCheck == 0;
+        if (periodic) {
+            safePointsUntilClockCheck = SAFE_POINTS_PER_CLOCK_CHECK;
+            publishProgress();
         }
+        if (checkpointPath != null && (checkpointRequested || cancelled
+                || (periodic && System.nanoTime() - lastCheckpointNanos >= checkpointIntervalNanos))) {
+            try {
+                writeCheckpoint(checkpointPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        checkCancelled();
+    }
+
+    private void publishProgress() {
+        publishedWork = completedWork;
+        publishedTime = progressTime;
+    }
+
+    protected void checkCancelled() {
+        if (cancelled) {
+            publishProgress();
+            throw new CancellationException("Scheduling cancelled at time " + core.getTime());
+        }
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public double getAvgTurnaroundTime() {
+        calculateAverages();
+        return avgTurnaroundTime;
+    }
+
+    public double getAvgResponseTime() {
+        calculateAverages();
+        return avgResponseTime;
+    }
+
+    // Averages come from the metrics recorded during the run, not from another pass over the table
+    protected void calculateAverages() {
+        avgTurnaroundTime = metrics.getTurnaround().getMean();
+        avgResponseTime = metrics.getResponse().getMean();
+    }
+
+    // The kernel has recorded the process's completion and metrics; publish the progress
+    private void recordProgress(int row) {
+        completedWork += table.getBurstTime(row);
+        progressTime = core.getTime();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,220 @@
+import java.lang.management.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class SchedulerBenchmark {
+    private static final int[] SIZES = {100, 1_000, 10_000, 100_000, 1_000_000};
+    private static final int[] QUANTA = {2, 8, 32};
+    private static final int MLFQ_ALLOTMENT = 8;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 200_000_000L; // Minimum length of one iteration
+
+    enum BurstDistribution {
+        UNIFORM,      // 1-20
+        EXPONENTIAL,  // Mean 10
+        BIMODAL;      // 90% short jobs of 1-5, 10% long jobs of 50-100
+
+        int next(Random random) {
+            switch (this) {
+                case EXPONENTIAL:
+                    return 1 + (int) (-Math.log(1.0 - random.nextDouble()) * 9.0);
+                case BIMODAL:
+                    return random.nextInt(10) == 0 ? 50 + random.nextInt(51) : 1 + random.nextInt(5);
+                default:
+                    return 1 + random.nextInt(20);
+            }
+        }
+    }
+
+    private static class BenchmarkCase {
+        final String name;
+        final Function<ProcessTable, Scheduler> factory;
+
+        BenchmarkCase(String name, Function<ProcessTable, Scheduler> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    private static boolean freshSchedulers; // Construct a new scheduler per op instead of resetting one
+
+    // Usage: java SchedulerBenchmark [maxProcesses] [schedulerNameFilter] [fresh]
+    // Runs without any build tool; gradle :jmh:jmh runs the same ops under JMH (see jmh/)
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : SIZES[SIZES.length - 1];
+        String filter = args.length > 1 ? args[1].toLowerCase() : "";
+        freshSchedulers = args.length > 2 && args[2].equalsIgnoreCase("fresh");
+
+        System.out.println("=".repeat(120));
+        System.out.println("    SCHEDULER BENCHMARK");
+        System.out.println("=".repeat(120));
+        System.out.printf("Warmup: %d iterations, Measurement: %d iterations, Iteration: >= %d ms%n",
+                WARMUP_ITERATIONS, MEASURED_ITERATIONS, ITERATION_NANOS / 1_000_000);
+        System.out.println(freshSchedulers ? "Each op constructs a new scheduler and schedules"
+                                           : "Each op resets one reused scheduler and schedules");
+        if (!isAllocationTrackingSupported()) {
+            System.out.println("Per-thread allocation tracking is not available on this JVM; allocation columns show 0.");
+        }
+
+        System.out.printf("%n%-12s %-12s %-10s %-12s %-12s %-12s %-14s %-14s %-8s %-8s%n",
+                "Scheduler", "Bursts", "Processes", "ops/s", "ms/op", "ns/process",
+                "alloc MB/s", "alloc B/op", "GCs", "GC ms");
+        System.out.println("-".repeat(120));
+
+        for (BenchmarkCase benchmarkCase : cases()) {
+            if (!benchmarkCase.name.toLowerCase().contains(filter)) {
+                continue;
+            }
+            for (BurstDistribution distribution : BurstDistribution.values()) {
+                for (int size : SIZES) {
+                    if (size <= maxSize) {
+                        runBenchmark(benchmarkCase, distribution, size);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<BenchmarkCase> cases() {
+        List<BenchmarkCase> cases = new ArrayList<>();
+        cases.add(new BenchmarkCase("FCFS", FCFSScheduler::new));
+        cases.add(new BenchmarkCase("SJF", SJFScheduler::new));
+        cases.add(new BenchmarkCase("SRTF", SRTFScheduler::new));
+        for (int quantum : QUANTA) {
+            cases.add(new BenchmarkCase("RR q=" + quantum, t -> new RoundRobinScheduler(t, quantum)));
+        }
+        for (int quantum : QUANTA) {
+            cases.add(new BenchmarkCase("MLFQ q=" + quantum, t -> new MLFQScheduler(t, quantum, MLFQ_ALLOTMENT)));
+        }
+        cases.add(new BenchmarkCase("MLFQ 16 lvl", t -> new MLFQScheduler(t, doublingQuanta(16), MLFQ_ALLOTMENT)));
+        return cases;
+    }
+
+    // The same op for harnesses that do their own timing (the JMH benchmarks in jmh/). Those live in a named
+    // package and can't name these classes, so they get a plain LongSupplier that returns the run's end time.
+    public static LongSupplier operation(String schedulerName, String bursts, int size, boolean fresh) {
+        BenchmarkCase benchmarkCase = cases().stream()
+                .filter(c -> c.name.equalsIgnoreCase(schedulerName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scheduler: " + schedulerName));
+        ProcessTable workload = generateWorkload(size, BurstDistribution.valueOf(bursts.toUpperCase()), 42);
+        Scheduler reused = benchmarkCase.factory.apply(workload);
+        reused.setVerbose(false);
+        return () -> {
+            Scheduler scheduler = reused;
+            if (fresh) {
+                scheduler = benchmarkCase.factory.apply(workload);
+                scheduler.setVerbose(false);
+            } else {
+                scheduler.reset(workload);
+            }
+            scheduler.schedule();
+            return scheduler.getTimeline().getEndTime();
+        };
+    }
+
+    // One op is resetting the scheduler (or constructing one in fresh mode) and calling schedule()
+    private static void runBenchmark(BenchmarkCase benchmarkCase, BurstDistribution distribution, int size) {
+        ProcessTable workload = generateWorkload(size, distribution, 42);
+        Scheduler scheduler = benchmarkCase.factory.apply(workload);
+        scheduler.setVerbose(false);
+
+        // Warm up so the JIT has compiled the scheduling loop and the reused buffers are sized
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(benchmarkCase, scheduler, workload);
+        }
+
+        long gcCountBefore = totalGcCount();
+        long gcTimeBefore = totalGcTime();
+        long allocatedBefore = allocatedBytes();
+        long ops = 0;
+        long nanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long[] iteration = runIteration(benchmarkCase, scheduler, workload);
+            ops += iteration[0];
+            nanos += iteration[1];
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        long gcCount = totalGcCount() - gcCountBefore;
+        long gcTime = totalGcTime() - gcTimeBefore;
+
+        double seconds = nanos / 1e9;
+        double nanosPerOp = (double) nanos / ops;
+        System.out.printf("%-12s %-12s %-10d %-12.2f %-12.3f %-12.1f %-14.1f %-14d %-8d %-8d%n",
+                benchmarkCase.name, distribution, size, ops / seconds, nanosPerOp / 1e6, nanosPerOp / size,
+                allocated / seconds / (1024 * 1024), allocated / ops, gcCount, gcTime);
+    }
+
+    // Returns {ops, elapsed nanos}; repeats the op until the iteration reaches ITERATION_NANOS
+    private static long[] runIteration(BenchmarkCase benchmarkCase, Scheduler reused, ProcessTable workload) {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            Scheduler scheduler = reused;
+            if (freshSchedulers) {
+                scheduler = benchmarkCase.factory.apply(workload);
+                scheduler.setVerbose(false);
+            } else {
+                scheduler.reset(workload);
+            }
+            scheduler.schedule();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return new long[]{ops, elapsed};
+    }
+
+    // Quanta 1, 2, 4, ... with the last level running FCFS
+    private static int[] doublingQuanta(int levels) {
+        int[] quanta = new int[levels];
+        for (int i = 0; i < levels - 1; i++) {
+            quanta[i] = 1 << Math.min(i, 20);
+        }
+        quanta[levels - 1] = MLFQScheduler.RUN_TO_COMPLETION;
+        return quanta;
+    }
+
+    // Arrivals come in about twice as fast as they can be served so the ready queue grows with the workload
+    private static ProcessTable generateWorkload(int size, BurstDistribution distribution, long seed) {
+        Random random = new Random(seed);
+        ProcessTable workload = new ProcessTable(size);
+        for (int i = 1; i <= size; i++) {
+            int arrivalTime = random.nextInt(Math.max(1, size * 5));
+            workload.add(i, arrivalTime, distribution.next(random));
+        }
+        return workload;
+    }
+
+    private static boolean isAllocationTrackingSupported() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported();
+    }
+
+    private static long allocatedBytes() {
+        if (!isAllocationTrackingSupported()) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}
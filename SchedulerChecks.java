@@ -0,0 +1,578 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+
+// Runnable checks that need nothing but the JDK: java SchedulerChecks (gradle build runs them as well).
+// Each check prints OK or the first difference it found, and the exit status is the number that failed.
+//  - the schedulers against tick-by-tick versions of the original algorithms on random workloads, and
+//    SJF's (burst, arrival, id) tie-break, which replaced the original's first-in-input-order pick
+//  - schedulers unaffected by later changes to the table they were built from
+//  - the results table's column sorts, which keep equal values in table order both ways
+//  - schedule traces and checkpoints written and read back, and damaged ones refused with IOException
+//  - malformed CSV and binary workload files rejected with an IOException
+public class SchedulerChecks {
+    private static final int WORKLOADS = 500;
+    private static final int QUANTUM = 3;
+    private static final int ALLOTMENT = 5;
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("scheduler-checks");
+        try {
+            check("FCFS matches the original", () -> againstReference(SchedulerChecks::fcfs, FCFSScheduler::new, false));
+            check("SJF matches the original on workloads listed in arrival order",
+                    () -> againstReference(p -> sjf(p, Reference.INPUT_ORDER), SJFScheduler::new, true));
+            check("SJF breaks burst ties by arrival, then id", () -> sjfTieBreak());
+            check("SRTF matches the original", () -> againstReference(SchedulerChecks::srtf, SRTFScheduler::new, false));
+            check("Round Robin matches the original", () -> againstReference(p -> roundRobin(p),
+                    p -> new RoundRobinScheduler(p, QUANTUM), false));
+            check("MLFQ matches the original", () -> againstReference(p -> mlfq(p),
+                    p -> new MLFQScheduler(p, QUANTUM, ALLOTMENT), false));
+            check("Schedulers keep their rows when the source table changes", () -> workloadIsolation());
+            check("Results table sorts keep ties in table order", () -> resultsSortTies());
+            check("Schedule trace round trip", () -> traceRoundTrip(dir));
+            check("Checkpoint round trip", () -> checkpointRoundTrip(dir));
+            check("Malformed workload files are rejected", () -> malformedWorkloads(dir));
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(dir);
+        }
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        System.exit(failures);
+    }
+
+    private interface Check {
+        // Null when the check passes, otherwise what went wrong
+        String run() throws IOException;
+    }
+
+    private static void check(String name, Check check) {
+        String problem;
+        try {
+            problem = check.run();
+        } catch (IOException | RuntimeException e) {
+            problem = "threw " + e;
+        }
+        System.out.printf("%-66s %s%n", name, problem == null ? "OK" : "FAILED");
+        if (problem != null) {
+            System.out.println("    " + problem);
+            failures++;
+        }
+    }
+
+    // Random workloads of up to 40 processes with shared arrival times and bursts, so ties come up often.
+    // Ids are shuffled against the input order unless the input is to be listed by (arrival, id)
+    private static List<Process> workload(Random random, boolean arrivalOrder) {
+        int count = 1 + random.nextInt(40);
+        int spread = 1 + random.nextInt(120);
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            processes.add(new Process(ids.get(i), random.nextInt(spread), 1 + random.nextInt(1 + random.nextInt(20))));
+        }
+        if (arrivalOrder) {
+            processes.sort(Comparator.comparingInt(Process::getArrivalTime).thenComparingInt(Process::getProcessId));
+        }
+        return processes;
+    }
+
+    // Every scheduler is run twice, since the second run reuses the first one's buffers
+    private static String againstReference(Function<List<Process>, Reference> reference,
+                                           Function<List<Process>, Scheduler> factory, boolean arrivalOrder) {
+        Random random = new Random(42);
+        for (int w = 0; w < WORKLOADS; w++) {
+            List<Process> processes = workload(random, arrivalOrder);
+            Reference expected = reference.apply(processes);
+            Scheduler scheduler = factory.apply(processes);
+            scheduler.setVerbose(false);
+            for (int run = 1; run <= 2; run++) {
+                scheduler.schedule();
+                String difference = expected.difference(scheduler);
+                if (difference != null) {
+                    return "workload " + w + " " + processes + ", run " + run + ": " + difference;
+                }
+            }
+        }
+        return null;
+    }
+
+    // P3 and P2 both wait for P1 with the same burst; the original took P3 as the first listed
+    private static String sjfTieBreak() {
+        List<Process> processes = Arrays.asList(new Process(1, 0, 5), new Process(3, 2, 3), new Process(2, 1, 3));
+        Scheduler scheduler = new SJFScheduler(processes);
+        scheduler.setVerbose(false);
+        scheduler.schedule();
+        if (sjf(processes, Reference.INPUT_ORDER).difference(scheduler) == null) {
+            return "still picks the first listed of equal bursts";
+        }
+        String difference = sjf(processes, Reference.ARRIVAL_THEN_ID).difference(scheduler);
+        if (difference != null) {
+            return difference;
+        }
+        return againstReference(p -> sjf(p, Reference.ARRIVAL_THEN_ID), SJFScheduler::new, false);
+    }
+
+    // Rows reused or added in the caller's table after a scheduler was built from it must not leak into
+    // the scheduler's runs, whether it has run already or not
+    private static String workloadIsolation() {
+        List<Process> processes = Arrays.asList(new Process(1, 0, 5), new Process(2, 1, 3));
+        ProcessTable workload = ProcessTable.fromProcesses(processes);
+        Scheduler fresh = new FCFSScheduler(workload);
+        Scheduler ran = new FCFSScheduler(workload);
+        fresh.setVerbose(false);
+        ran.setVerbose(false);
+        ran.schedule();
+        workload.reuse(0, 9, 10, 5);
+        workload.add(3, 2, 1);
+        fresh.schedule();
+        ran.schedule();
+        String difference = fcfs(processes).difference(fresh);
+        if (difference == null) {
+            difference = fcfs(processes).difference(ran);
+        }
+        if (difference == null && (workload.getProcessId(0) != 9 || workload.getArrivalTime(0) != 10 || workload.size() != 3)) {
+            difference = "the caller's table lost its own changes";
+        }
+        return difference;
+    }
+
+    // Bursts 2, 1, 2, 1 in rows 0-3: ascending shows ids 2 4 1 3, and the second click on the column
+    // shows 1 3 2 4 rather than the ascending order reversed
+    private static String resultsSortTies() {
+        ResultsTableModel model = new ResultsTableModel();
+        model.setProcessTable(ProcessTable.fromProcesses(Arrays.asList(
+                new Process(1, 0, 2), new Process(2, 0, 1), new Process(3, 0, 2), new Process(4, 0, 1))));
+        int[][] expected = {{2, 4, 1, 3}, {1, 3, 2, 4}};
+        for (int[] ids : expected) {
+            model.sortBy(ResultsTableModel.BURST);
+            for (int row = 0; row < ids.length; row++) {
+                Object id = model.getValueAt(row, ResultsTableModel.PROCESS);
+                if (!id.equals(ids[row])) {
+                    return (model.isAscending() ? "ascending" : "descending") + " row " + row + ": P" + id + ", expected P" + ids[row];
+                }
+            }
+        }
+        return null;
+    }
+
+    // A run with several blocks of segments, read back whole and in random windows
+    private static String traceRoundTrip(Path dir) throws IOException {
+        ProcessTable workload = new WorkloadGenerator(7).generate(20_000);
+        Scheduler scheduler = new MLFQScheduler(workload, 2, 6);
+        scheduler.setVerbose(false);
+        scheduler.schedule();
+        Timeline timeline = scheduler.getTimeline();
+        ProcessTable expected = scheduler.getProcessTable();
+        Path path = dir.resolve("check.trace");
+        ScheduleTraceWriter.write(scheduler, path);
+
+        try (ScheduleTrace trace = ScheduleTrace.open(path)) {
+            if (trace.getProcessCount() != expected.size() || trace.getSegmentCount() != timeline.segmentCount()
+                    || trace.getEndTime() != timeline.getEndTime()) {
+                return String.format("header says %d processes, %d segments, end %d; expected %d, %d, %d",
+                        trace.getProcessCount(), trace.getSegmentCount(), trace.getEndTime(),
+                        expected.size(), timeline.segmentCount(), timeline.getEndTime());
+            }
+            ProcessTable processes = trace.readProcesses();
+            for (int row = 0; row < expected.size(); row++) {
+                if (processes.getProcessId(row) != expected.getProcessId(row)
+                        || processes.getArrivalTime(row) != expected.getArrivalTime(row)
+                        || processes.getBurstTime(row) != expected.getBurstTime(row)
+                        || processes.getStartTime(row) != expected.getStartTime(row)
+                        || processes.getCompletionTime(row) != expected.getCompletionTime(row)) {
+                    return "process record " + row + " differs";
+                }
+            }
+
+            Timeline window = new Timeline();
+            trace.readWindow(trace.getStartTime(), trace.getEndTime(), window);
+            if (window.segmentCount() != timeline.segmentCount()) {
+                return "whole window has " + window.segmentCount() + " segments, expected " + timeline.segmentCount();
+            }
+            for (int s = 0; s < timeline.segmentCount(); s++) {
+                if (window.getStart(s) != timeline.getStart(s) || window.getLength(s) != timeline.getLength(s)
+                        || !window.getLabel(s).equals(timeline.getLabel(s))) {
+                    return "segment " + s + " reads back as " + window.getLabel(s) + " at " + window.getStart(s)
+                            + ", expected " + timeline.getLabel(s) + " at " + timeline.getStart(s);
+                }
+            }
+            Random random = new Random(3);
+            for (int w = 0; w < 100; w++) {
+                int from = random.nextInt(timeline.getEndTime());
+                int to = from + 1 + random.nextInt(5000);
+                trace.readWindow(from, to, window);
+                for (int time = from; time < Math.min(to, timeline.getEndTime()); time++) {
+                    String label = window.getLabel(window.segmentAt(time));
+                    if (!label.equals(timeline.getLabel(timeline.segmentAt(time)))) {
+                        return "window " + from + "-" + to + " shows " + label + " at time " + time;
+                    }
+                }
+            }
+        }
+
+        // Overwrite every block with varint continuation bytes; the index offset is the header's last field
+        byte[] bytes = Files.readAllBytes(path);
+        long indexOffset = ByteBuffer.wrap(bytes).getLong(36);
+        Arrays.fill(bytes, ScheduleTrace.HEADER_BYTES, (int) indexOffset, (byte) 0xFF);
+        Path damaged = dir.resolve("damaged.trace");
+        Files.write(damaged, bytes);
+        try (ScheduleTrace trace = ScheduleTrace.open(damaged)) {
+            trace.readWindow(trace.getStartTime(), trace.getEndTime(), new Timeline());
+            return "damaged segment blocks were decoded without an error";
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Checkpointing every safe-point clock check leaves the last one taken late in the run; a new
+    // scheduler resumed from it must finish exactly like an uninterrupted run
+    private static String checkpointRoundTrip(Path dir) throws IOException {
+        ProcessTable workload = new WorkloadGenerator(11).generate(5_000);
+        List<Function<ProcessTable, Scheduler>> factories = Arrays.asList(FCFSScheduler::new, SJFScheduler::new,
+                SRTFScheduler::new, w -> new RoundRobinScheduler(w, 2), w -> new MLFQScheduler(w, 2, 6));
+        Path path = dir.resolve("check.ckpt");
+        for (Function<ProcessTable, Scheduler> factory : factories) {
+            Scheduler uninterrupted = factory.apply(workload);
+            uninterrupted.setVerbose(false);
+            uninterrupted.schedule();
+
+            Files.deleteIfExists(path);
+            Scheduler checkpointed = factory.apply(workload);
+            checkpointed.setVerbose(false);
+            checkpointed.setCheckpointing(path, 0);
+            checkpointed.schedule();
+            if (!Files.exists(path)) {
+                return checkpointed.getClass().getSimpleName() + " wrote no checkpoint";
+            }
+
+            Scheduler resumed = factory.apply(workload);
+            resumed.setVerbose(false);
+            resumed.resume(path);
+            resumed.schedule();
+            String difference = sameRun(uninterrupted, resumed);
+            if (difference != null) {
+                return resumed.getClass().getSimpleName() + " resumed: " + difference;
+            }
+        }
+
+        try {
+            new RoundRobinScheduler(workload, 3).resume(path);
+            return "a checkpoint with other settings was accepted";
+        } catch (IOException expected) {
+            // Refused, as it should be
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        Path truncated = dir.resolve("truncated.ckpt");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        try {
+            new MLFQScheduler(workload, 2, 6).resume(truncated);
+            return "a truncated checkpoint was accepted";
+        } catch (IOException expected) {
+            return null;
+        }
+    }
+
+    private static String sameRun(Scheduler expected, Scheduler actual) {
+        Timeline x = expected.getTimeline();
+        Timeline y = actual.getTimeline();
+        if (x.segmentCount() != y.segmentCount() || x.getEndTime() != y.getEndTime()) {
+            return y.segmentCount() + " segments to time " + y.getEndTime() + ", expected "
+                    + x.segmentCount() + " to time " + x.getEndTime();
+        }
+        for (int s = 0; s < x.segmentCount(); s++) {
+            if (x.getStart(s) != y.getStart(s) || x.getLength(s) != y.getLength(s) || !x.getLabel(s).equals(y.getLabel(s))) {
+                return "segment " + s + " is " + y.getLabel(s) + " at " + y.getStart(s) + ", expected "
+                        + x.getLabel(s) + " at " + x.getStart(s);
+            }
+        }
+        ProcessTable p = expected.getProcessTable();
+        ProcessTable q = actual.getProcessTable();
+        for (int row = 0; row < p.size(); row++) {
+            if (p.getStartTime(row) != q.getStartTime(row) || p.getCompletionTime(row) != q.getCompletionTime(row)) {
+                return "P" + p.getProcessId(row) + " differs";
+            }
+        }
+        if (!expected.getMetrics().format(1).equals(actual.getMetrics().format(1))) {
+            return "metrics differ";
+        }
+        return null;
+    }
+
+    private static String malformedWorkloads(Path dir) throws IOException {
+        String[] accepted = {
+            "id,arrival,burst\n1,0,5\n2,1,3\n",
+            "# comment\n\n1,0,5\r\n 2 , 3 , 4 \n",
+            "1,0,2147483647",
+        };
+        for (String csv : accepted) {
+            Path path = dir.resolve("good.csv");
+            Files.write(path, csv.getBytes("UTF-8"));
+            WorkloadLoader.load(path);
+        }
+
+        String[] rejected = {
+            "1,2,3x\n",
+            "1,0,5\n-1,2,3\n",
+            "1,0,5\nfoo,1,2\n",
+            "1,0,5\n2,2147483648,1\n",
+            "1,0,5\n2,3\n",
+            "1,0,5,6\n",
+        };
+        for (String csv : rejected) {
+            Path path = dir.resolve("bad.csv");
+            Files.write(path, csv.getBytes("UTF-8"));
+            try {
+                WorkloadLoader.load(path);
+                return "accepted " + csv.trim().replace("\n", "\\n");
+            } catch (IOException expected) {
+                if (expected.getMessage() == null || !expected.getMessage().contains("line")) {
+                    return "no line number for " + csv.trim().replace("\n", "\\n") + ": " + expected.getMessage();
+                }
+            }
+        }
+
+        Path binary = dir.resolve("good.bin");
+        WorkloadLoader.writeBinary(ProcessTable.fromProcesses(ProcessGenerator.generateSampleProcesses()), binary);
+        byte[] bytes = Files.readAllBytes(binary);
+        byte[][] damaged = {
+            Arrays.copyOf(bytes, bytes.length - 1),                         // Last record cut short
+            Arrays.copyOf(bytes, 6),                                        // Header cut short
+            ByteBuffer.allocate(bytes.length).put(bytes).putInt(0, 0x12345678).array(), // Wrong magic
+            ByteBuffer.allocate(bytes.length).put(bytes).putInt(4, -1).array(),         // Negative count
+        };
+        for (int i = 0; i < damaged.length; i++) {
+            Path path = dir.resolve("bad.bin");
+            Files.write(path, damaged[i]);
+            try {
+                WorkloadLoader.load(path);
+                return "accepted damaged binary trace " + i;
+            } catch (IOException expected) {
+                // Refused, as it should be
+            }
+        }
+        return null;
+    }
+
+    // Tick-by-tick versions of the original list-based schedulers. Processes are input indexes, and a
+    // run records one label per time unit and each process's start and completion time
+    private static class Reference {
+        // How SJF chose among equal bursts: the original took the first in input order
+        static final int INPUT_ORDER = 0;
+        static final int ARRIVAL_THEN_ID = 1;
+
+        final int[] ids;
+        final int[] arrivals;
+        final int[] bursts;
+        final int[] remaining;
+        final int[] starts;
+        final int[] completions;
+        final List<String> ticks = new ArrayList<>();
+        int time;
+
+        Reference(List<Process> processes) {
+            int count = processes.size();
+            ids = new int[count];
+            arrivals = new int[count];
+            bursts = new int[count];
+            remaining = new int[count];
+            starts = new int[count];
+            completions = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = processes.get(i).getProcessId();
+                arrivals[i] = processes.get(i).getArrivalTime();
+                bursts[i] = processes.get(i).getBurstTime();
+                remaining[i] = bursts[i];
+                starts[i] = -1;
+            }
+        }
+
+        // Input indexes by arrival time; the sort is stable, so equal arrivals keep input order
+        List<Integer> byArrival() {
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparingInt(i -> arrivals[i]));
+            return order;
+        }
+
+        void idleUntil(int until) {
+            for (; time < until; time++) {
+                ticks.add("IDLE");
+            }
+        }
+
+        void run(int process, int duration, String label) {
+            if (starts[process] < 0) {
+                starts[process] = time;
+            }
+            for (int i = 0; i < duration; i++) {
+                ticks.add(label);
+            }
+            time += duration;
+            remaining[process] -= duration;
+            if (remaining[process] == 0) {
+                completions[process] = time;
+            }
+        }
+
+        // Null when the scheduler ran the same ticks and gave every process the same start and completion
+        String difference(Scheduler scheduler) {
+            Timeline timeline = scheduler.getTimeline();
+            if (timeline.getEndTime() != ticks.size()) {
+                return "ends at " + timeline.getEndTime() + ", expected " + ticks.size();
+            }
+            for (int s = 0; s < timeline.segmentCount(); s++) {
+                for (int t = timeline.getStart(s); t < timeline.getEnd(s); t++) {
+                    if (!timeline.getLabel(s).equals(ticks.get(t))) {
+                        return "runs " + timeline.getLabel(s) + " at time " + t + ", expected " + ticks.get(t);
+                    }
+                }
+            }
+            ProcessTable table = scheduler.getProcessTable();
+            for (int i = 0; i < ids.length; i++) {
+                if (table.getStartTime(i) != starts[i] || table.getCompletionTime(i) != completions[i]) {
+                    return String.format("P%d runs %d-%d, expected %d-%d", ids[i], table.getStartTime(i),
+                            table.getCompletionTime(i), starts[i], completions[i]);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static Reference fcfs(List<Process> processes) {
+        Reference r = new Reference(processes);
+        for (int p : r.byArrival()) {
+            r.idleUntil(r.arrivals[p]);
+            r.run(p, r.bursts[p], "P" + r.ids[p]);
+        }
+        return r;
+    }
+
+    // Runs the arrived process with the shortest burst to completion; waits for the next arrival if none
+    private static Reference sjf(List<Process> processes, int tieBreak) {
+        Reference r = new Reference(processes);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < r.ids.length; i++) {
+            pending.add(i);
+        }
+        Comparator<Integer> order = Comparator.comparingInt(i -> r.bursts[i]);
+        if (tieBreak == Reference.ARRIVAL_THEN_ID) {
+            order = order.thenComparingInt(i -> r.arrivals[i]).thenComparingInt(i -> r.ids[i]);
+        }
+        while (!pending.isEmpty()) {
+            Integer next = null;
+            for (int p : pending) {
+                if (r.arrivals[p] <= r.time && (next == null || order.compare(p, next) < 0)) {
+                    next = p;
+                }
+            }
+            if (next == null) {
+                r.idleUntil(pending.stream().mapToInt(p -> r.arrivals[p]).min().getAsInt());
+                continue;
+            }
+            r.run(next, r.bursts[next], "P" + r.ids[next]);
+            pending.remove(next);
+        }
+        return r;
+    }
+
+    // One time unit at a time to the arrived process with the least remaining time, first listed on ties
+    private static Reference srtf(List<Process> processes) {
+        Reference r = new Reference(processes);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < r.ids.length; i++) {
+            pending.add(i);
+        }
+        while (!pending.isEmpty()) {
+            Integer next = null;
+            for (int p : pending) {
+                if (r.arrivals[p] <= r.time && (next == null || r.remaining[p] < r.remaining[next])) {
+                    next = p;
+                }
+            }
+            if (next == null) {
+                r.idleUntil(pending.stream().mapToInt(p -> r.arrivals[p]).min().getAsInt());
+                continue;
+            }
+            r.run(next, 1, "P" + r.ids[next]);
+            if (r.remaining[next] == 0) {
+                pending.remove(next);
+            }
+        }
+        return r;
+    }
+
+    // A preempted process rejoins the queue before the processes that arrived during its quantum
+    private static Reference roundRobin(List<Process> processes) {
+        Reference r = new Reference(processes);
+        List<Integer> pending = r.byArrival();
+        Deque<Integer> ready = new ArrayDeque<>();
+        while (!pending.isEmpty() || !ready.isEmpty()) {
+            while (!pending.isEmpty() && r.arrivals[pending.get(0)] <= r.time) {
+                ready.add(pending.remove(0));
+            }
+            if (ready.isEmpty()) {
+                r.idleUntil(r.arrivals[pending.get(0)]);
+                continue;
+            }
+            int p = ready.poll();
+            r.run(p, Math.min(QUANTUM, r.remaining[p]), "P" + r.ids[p]);
+            if (r.remaining[p] > 0) {
+                ready.add(p);
+            }
+        }
+        return r;
+    }
+
+    // Four levels: a quantum on the first three, run to completion on the last. A process drops a level
+    // once it has used the allotment on its level
+    private static Reference mlfq(List<Process> processes) {
+        Reference r = new Reference(processes);
+        List<Integer> pending = r.byArrival();
+        List<Deque<Integer>> levels = new ArrayList<>();
+        for (int level = 0; level < 4; level++) {
+            levels.add(new ArrayDeque<>());
+        }
+        int[] used = new int[r.ids.length];
+        while (true) {
+            while (!pending.isEmpty() && r.arrivals[pending.get(0)] <= r.time) {
+                levels.get(0).add(pending.remove(0));
+            }
+            int level = 0;
+            while (level < 4 && levels.get(level).isEmpty()) {
+                level++;
+            }
+            if (level == 4) {
+                if (pending.isEmpty()) {
+                    return r;
+                }
+                r.idleUntil(r.arrivals[pending.get(0)]);
+                continue;
+            }
+            int p = levels.get(level).poll();
+            int duration = level < 3 ? Math.min(QUANTUM, r.remaining[p]) : r.remaining[p];
+            r.run(p, duration, "P" + r.ids[p] + "Q" + level);
+            used[p] += duration;
+            if (r.remaining[p] > 0) {
+                int next = level;
+                if (used[p] >= ALLOTMENT && level < 3) {
+                    next++;
+                    used[p] = 0;
+                }
+                levels.get(next).add(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.*;
+
+// Single-pass run metrics: schedulers record each process as it completes and each busy slice as it
+// runs, so summaries need no second pass over the processes and memory doesn't grow with the workload
+public class SchedulingMetrics {
+    private final LatencyHistogram turnaround = new LatencyHistogram();
+    private final LatencyHistogram response = new LatencyHistogram();
+    private final LatencyHistogram waiting = new LatencyHistogram();
+    private long busyTime;
+    private int endTime;
+
+    public void recordCompletion(int arrivalTime, int burstTime, int startTime, int completionTime) {
+        turnaround.record(completionTime - arrivalTime);
+        response.record(startTime - arrivalTime);
+        waiting.record(completionTime - arrivalTime - burstTime);
+        endTime = Math.max(endTime, completionTime);
+    }
+
+    public void recordBusy(int duration) {
+        busyTime += duration;
+    }
+
+    // Combine metrics from independently simulated cores
+    public void merge(SchedulingMetrics other) {
+        turnaround.merge(other.turnaround);
+        response.merge(other.response);
+        waiting.merge(other.waiting);
+        busyTime += other.busyTime;
+        endTime = Math.max(endTime, other.endTime);
+    }
+
+    public void clear() {
+        turnaround.clear();
+        response.clear();
+        waiting.clear();
+        busyTime = 0;
+        endTime = 0;
+    }
+
+    // Checkpoint support
+    public void write(DataOutput out) throws IOException {
+        turnaround.write(out);
+        response.write(out);
+        waiting.write(out);
+        out.writeLong(busyTime);
+        out.writeInt(endTime);
+    }
+
+    public void read(DataInput in) throws IOException {
+        turnaround.read(in);
+        response.read(in);
+        waiting.read(in);
+        busyTime = in.readLong();
+        endTime = in.readInt();
+    }
+
+    // Getters
+    public LatencyHistogram getTurnaround() { return turnaround; }
+    public LatencyHistogram getResponse() { return response; }
+    public LatencyHistogram getWaiting() { return waiting; }
+    public long getCompleted() { return turnaround.getCount(); }
+    public long getBusyTime() { return busyTime; }
+    public int getEndTime() { return endTime; }
+
+    // Busy time over [0, last completion] for the given number of cores
+    public double getUtilization(int cores) {
+        return endTime == 0 ? 0 : (double) busyTime / ((long) endTime * cores);
+    }
+
+    // Completed processes per time unit
+    public double getThroughput() {
+        return endTime == 0 ? 0 : (double) getCompleted() / endTime;
+    }
+
+    public String format(int cores) {
+        StringBuilder output = new StringBuilder();
+        output.append(String.format("%-12s %-10s %-10s %-10s %-10s %-10s%n",
+                "Metric", "Mean", "p50", "p90", "p99", "Max"));
+        output.append("-".repeat(66)).append("\n");
+        appendRow(output, "Turnaround", turnaround);
+        appendRow(output, "Response", response);
+        appendRow(output, "Waiting", waiting);
+        output.append("-".repeat(66)).append("\n");
+        output.append(String.format("CPU Utilization: %.1f%%, Throughput: %.3f processes/unit%n",
+                100 * getUtilization(cores), getThroughput()));
+        return output.toString();
+    }
+
+    private static void appendRow(StringBuilder output, String name, LatencyHistogram histogram) {
+        output.append(String.format("%-12s %-10.2f %-10d %-10d %-10d %-10d%n", name, histogram.getMean(),
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+                histogram.getMax()));
+    }
+}
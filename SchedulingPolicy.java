@@ -0,0 +1,58 @@
+import java.io.*;
+
+// Ready-queue policy for one CPU. The core that owns it decides when time passes; the policy
+// only decides which ready process runs next and for how long.
+public interface SchedulingPolicy {
+    // A process became ready on this CPU (new arrival, requeue or migration)
+    void onArrival(int row);
+
+    // Remove and return the next process to run, or -1 when nothing is ready
+    int pickNext();
+
+    // Number of ready processes waiting in this policy
+    int size();
+
+    // Longest run before onQuantumExpired is called
+    default int timeSlice(int row) {
+        return Integer.MAX_VALUE;
+    }
+
+    // The running process used up its time slice without completing
+    default void onQuantumExpired(int row, int ran) {
+        onArrival(row);
+    }
+
+    default void onComplete(int row) {
+    }
+
+    // Preemptive policies are asked on every arrival whether the running process should give up the CPU
+    default boolean isPreemptive() {
+        return false;
+    }
+
+    default boolean shouldPreempt(int running) {
+        return false;
+    }
+
+    default void onPreempted(int row, int ran) {
+        onArrival(row);
+    }
+
+    // Queue level shown in the timeline
+    default int queueLevel(int row) {
+        return Timeline.NO_LEVEL;
+    }
+
+    // Remove a ready process so another CPU can run it, or -1 when nothing is ready
+    default int steal() {
+        return pickNext();
+    }
+
+    // Run state, so a core can be reused for another run and checkpointed: clear() empties the ready
+    // queue, write() and read() store and restore it in exactly the same order
+    void clear();
+
+    void write(DataOutput out) throws IOException;
+
+    void read(DataInput in) throws IOException;
+}
@@ -0,0 +1,206 @@
+import java.io.*;
+import java.util.*;
+
+public class Timeline {
+    public static final int IDLE = -1;     // Process id used for idle segments
+    public static final int NO_LEVEL = -1; // Queue level for schedulers without queues
+
+    private int[] starts;
+    private int[] lengths;
+    private int[] processIds;
+    private int[] queueLevels;
+    private int size;
+    private int endTime;
+    private TimelineIndex index; // Built on first use, dropped when segments are removed or replaced
+    private TimelineBins bins;   // Likewise
+
+    public Timeline() {
+        this(16);
+    }
+
+    public Timeline(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        starts = new int[capacity];
+        lengths = new int[capacity];
+        processIds = new int[capacity];
+        queueLevels = new int[capacity];
+        size = 0;
+        endTime = 0;
+    }
+
+    // Append a run of time units, merging with the previous segment when it belongs to
+    // the same process at the same queue level
+    public void append(int processId, int queueLevel, int duration) {
+        if (duration <= 0) {
+            return;
+        }
+        if (size > 0 && processIds[size - 1] == processId && queueLevels[size - 1] == queueLevel) {
+            lengths[size - 1] += duration;
+        } else {
+            if (size == starts.length) {
+                grow();
+            }
+            starts[size] = endTime;
+            lengths[size] = duration;
+            processIds[size] = processId;
+            queueLevels[size] = queueLevel;
+            size++;
+        }
+        endTime += duration;
+    }
+
+    public void appendIdle(int duration) {
+        append(IDLE, NO_LEVEL, duration);
+    }
+
+    public void clear() {
+        clear(0);
+    }
+
+    // Empties the timeline so the next append starts at the given time; for windows onto a longer schedule
+    public void clear(int startTime) {
+        size = 0;
+        endTime = startTime;
+        index = null;
+        bins = null;
+    }
+
+    // Drops every segment but the last, which later appends may still extend; for timelines that are
+    // streamed out as they grow. Times stay absolute, so the first kept segment no longer starts at 0
+    public void retainLast() {
+        if (size > 1) {
+            int last = size - 1;
+            starts[0] = starts[last];
+            lengths[0] = lengths[last];
+            processIds[0] = processIds[last];
+            queueLevels[0] = queueLevels[last];
+            size = 1;
+            index = null;
+            bins = null;
+        }
+    }
+
+    // Checkpoint support. Segments are contiguous, so only the first start is stored
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(size > 0 ? starts[0] : endTime);
+        out.writeInt(endTime);
+        CheckpointFile.writeInts(out, lengths, 0, size);
+        CheckpointFile.writeInts(out, processIds, 0, size);
+        CheckpointFile.writeInts(out, queueLevels, 0, size);
+    }
+
+    public void read(DataInput in) throws IOException {
+        int count = in.readInt();
+        int start = in.readInt();
+        int end = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt timeline in checkpoint: " + count + " segments");
+        }
+        if (starts.length < count) {
+            starts = new int[count];
+            lengths = new int[count];
+            processIds = new int[count];
+            queueLevels = new int[count];
+        }
+        CheckpointFile.readInts(in, lengths, 0, count);
+        CheckpointFile.readInts(in, processIds, 0, count);
+        CheckpointFile.readInts(in, queueLevels, 0, count);
+        long time = start;
+        for (int s = 0; s < count; s++) {
+            starts[s] = (int) time;
+            time += lengths[s];
+        }
+        if (time != end) {
+            throw new IOException("Corrupt timeline in checkpoint: segments end at " + time + ", expected " + end);
+        }
+        size = count;
+        endTime = end;
+        index = null;
+        bins = null;
+    }
+
+    private void grow() {
+        int capacity = starts.length + (starts.length >> 1) + 1;
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        processIds = Arrays.copyOf(processIds, capacity);
+        queueLevels = Arrays.copyOf(queueLevels, capacity);
+    }
+
+    // Getters
+    public int segmentCount() { return size; }
+    public int getEndTime() { return endTime; }
+    public boolean isEmpty() { return size == 0; }
+    public int getStart(int segment) { return starts[segment]; }
+    public int getLength(int segment) { return lengths[segment]; }
+    public int getEnd(int segment) { return starts[segment] + lengths[segment]; }
+    public int getProcessId(int segment) { return processIds[segment]; }
+    public int getQueueLevel(int segment) { return queueLevels[segment]; }
+    public boolean isIdle(int segment) { return processIds[segment] == IDLE; }
+
+    public String getLabel(int segment) {
+        return label(processIds[segment], queueLevels[segment]);
+    }
+
+    public static String label(int processId, int queueLevel) {
+        if (processId == IDLE) {
+            return "IDLE";
+        }
+        return queueLevel == NO_LEVEL ? "P" + processId : "P" + processId + "Q" + queueLevel;
+    }
+
+    // Index of the segment covering the given time unit, or -1 if outside the timeline
+    public int segmentAt(int time) {
+        if (size == 0 || time < starts[0] || time >= endTime) {
+            return -1;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    // Per-process slice lists for the timeline as it is now, rebuilt only after it has changed, so a finished
+    // timeline is indexed once however often it is queried
+    public TimelineIndex getIndex() {
+        if (index == null || !index.isCurrent(size, endTime)) {
+            index = new TimelineIndex(this);
+        }
+        return index;
+    }
+
+    // Summary bins for drawing the timeline zoomed out, kept the same way as the index
+    public TimelineBins getBins() {
+        if (bins == null || !bins.isCurrent(size, endTime)) {
+            bins = new TimelineBins(this);
+        }
+        return bins;
+    }
+
+    // Per-tick view with one label per time unit, computed on access
+    public List<String> asTickList() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                int segment = segmentAt(index);
+                if (segment < 0) {
+                    throw new IndexOutOfBoundsException("Time " + index + " outside timeline of length " + endTime);
+                }
+                return getLabel(segment);
+            }
+
+            @Override
+            public int size() {
+                return endTime;
+            }
+        };
+    }
+}
@@ -0,0 +1,199 @@
+import java.util.Arrays;
+
+// Multi-resolution summary of a Timeline for drawing it zoomed out. Level 0 cuts the timeline into at most
+// BASE_BINS equal bins and every level above merges pairs of bins, so at any zoom there is a level with
+// about one bin per pixel column and drawing costs the chart's width rather than the timeline's length.
+// A bin keeps its busy time, which adds up exactly across levels, and the process and queue level that
+// ran the longest in it: exact at level 0, and above it the heavier of the two halves' choices.
+public class TimelineBins {
+    private static final int BASE_BINS = 1 << 18;
+
+    private final int segments; // Segment count and end time when built, as for TimelineIndex
+    private final int endTime;
+    private final int startTime;
+    private final int baseWidth;
+    private final int[][] busyTimes;
+    private final int[][] dominantIds;
+    private final int[][] dominantLevels;
+    private final int[][] dominantTimes;
+
+    // Time each (process, queue level) ran in the open level 0 bin; open addressing, cleared per bin
+    private long[] keys = new long[16];
+    private int[] times = new int[16];
+    private int[] used = new int[16];
+    private int usedCount;
+
+    public TimelineBins(Timeline timeline) {
+        this.segments = timeline.segmentCount();
+        this.endTime = timeline.getEndTime();
+        this.startTime = segments > 0 ? timeline.getStart(0) : endTime;
+        long span = endTime - startTime;
+        this.baseWidth = (int) Math.max(1, (span + BASE_BINS - 1) / BASE_BINS);
+
+        int levels = 1;
+        for (long bins = binCount(span, baseWidth); bins > 1; bins = (bins + 1) / 2) {
+            levels++;
+        }
+        busyTimes = new int[levels][];
+        dominantIds = new int[levels][];
+        dominantLevels = new int[levels][];
+        dominantTimes = new int[levels][];
+        allocate(0, (int) binCount(span, baseWidth));
+        buildBaseLevel(timeline);
+        for (int level = 1; level < levels; level++) {
+            int children = busyTimes[level - 1].length;
+            allocate(level, (children + 1) / 2);
+            for (int bin = 0; bin < busyTimes[level].length; bin++) {
+                int left = 2 * bin;
+                int right = Math.min(left + 1, children - 1);
+                int heavier = right != left && dominantTimes[level - 1][right] > dominantTimes[level - 1][left] ? right : left;
+                busyTimes[level][bin] = busyTimes[level - 1][left] + (right != left ? busyTimes[level - 1][right] : 0);
+                dominantIds[level][bin] = dominantIds[level - 1][heavier];
+                dominantLevels[level][bin] = dominantLevels[level - 1][heavier];
+                dominantTimes[level][bin] = dominantTimes[level - 1][heavier];
+            }
+        }
+        keys = null;
+        times = null;
+        used = null;
+    }
+
+    private static long binCount(long span, int width) {
+        return Math.max(1, (span + width - 1) / width);
+    }
+
+    private void allocate(int level, int bins) {
+        busyTimes[level] = new int[bins];
+        dominantIds[level] = new int[bins];
+        dominantLevels[level] = new int[bins];
+        dominantTimes[level] = new int[bins];
+        Arrays.fill(dominantIds[level], Timeline.IDLE);
+        Arrays.fill(dominantLevels[level], Timeline.NO_LEVEL);
+    }
+
+    // Bins wholly inside one segment are filled directly; only bins with segment boundaries go through
+    // the per-bin totals
+    private void buildBaseLevel(Timeline timeline) {
+        int bin = 0;
+        long binEnd = (long) startTime + baseWidth;
+        for (int s = 0; s < segments; s++) {
+            long time = timeline.getStart(s);
+            long end = timeline.getEnd(s);
+            int processId = timeline.getProcessId(s);
+            int queueLevel = timeline.getQueueLevel(s);
+            boolean idle = timeline.isIdle(s);
+            while (time < end) {
+                if (time == binEnd - baseWidth && end >= binEnd && usedCount == 0) {
+                    int whole = (int) ((end - time) / baseWidth);
+                    for (int i = 0; i < whole; i++, bin++) {
+                        if (!idle) {
+                            busyTimes[0][bin] = baseWidth;
+                            dominantIds[0][bin] = processId;
+                            dominantLevels[0][bin] = queueLevel;
+                            dominantTimes[0][bin] = baseWidth;
+                        }
+                    }
+                    time += (long) whole * baseWidth;
+                    binEnd += (long) whole * baseWidth;
+                    continue;
+                }
+                long part = Math.min(end, binEnd) - time;
+                if (!idle) {
+                    add(processId, queueLevel, (int) part);
+                    busyTimes[0][bin] += part;
+                }
+                time += part;
+                if (time == binEnd) {
+                    closeBin(bin++);
+                    binEnd += baseWidth;
+                }
+            }
+        }
+        if (bin < busyTimes[0].length) {
+            closeBin(bin);
+        }
+    }
+
+    private void add(int processId, int queueLevel, int time) {
+        long key = ((long) processId << 32) | (queueLevel & 0xFFFFFFFFL);
+        int mask = keys.length - 1;
+        int slot = (int) (key ^ (key >>> 29) ^ (key >>> 41)) * 0x9E3779B9 >>> 7 & mask;
+        while (times[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (times[slot] == 0) {
+            keys[slot] = key;
+            used[usedCount++] = slot;
+        }
+        times[slot] += time;
+        if (2 * usedCount > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldTimes = times;
+        int[] oldUsed = used;
+        int count = usedCount;
+        keys = new long[oldKeys.length * 2];
+        times = new int[oldKeys.length * 2];
+        used = new int[oldKeys.length * 2];
+        usedCount = 0;
+        for (int i = 0; i < count; i++) {
+            long key = oldKeys[oldUsed[i]];
+            add((int) (key >> 32), (int) key, oldTimes[oldUsed[i]]);
+        }
+    }
+
+    // Picks the bin's longest-running process and clears the totals for the next bin
+    private void closeBin(int bin) {
+        for (int i = 0; i < usedCount; i++) {
+            int slot = used[i];
+            if (times[slot] > dominantTimes[0][bin]) {
+                dominantIds[0][bin] = (int) (keys[slot] >> 32);
+                dominantLevels[0][bin] = (int) keys[slot];
+                dominantTimes[0][bin] = times[slot];
+            }
+            times[slot] = 0;
+        }
+        usedCount = 0;
+    }
+
+    // Still describes the timeline it was built from, as far as appends go
+    boolean isCurrent(int segmentCount, int timelineEnd) {
+        return segments == segmentCount && endTime == timelineEnd;
+    }
+
+    // Coarsest level whose bins are at most the given number of time units wide
+    public int levelFor(double units) {
+        int level = 0;
+        while (level + 1 < busyTimes.length && (double) baseWidth * (2L << level) <= units) {
+            level++;
+        }
+        return level;
+    }
+
+    public int levelCount() { return busyTimes.length; }
+    public int binCount(int level) { return busyTimes[level].length; }
+    public long getBinWidth(int level) { return (long) baseWidth << level; }
+
+    // Bin of the level covering the time, clamped to the first and last bin
+    public int binAt(int level, int time) {
+        long bin = Math.max(0, ((long) time - startTime) / getBinWidth(level));
+        return (int) Math.min(bin, busyTimes[level].length - 1);
+    }
+
+    public int getBinStart(int level, int bin) {
+        return (int) (startTime + bin * getBinWidth(level));
+    }
+
+    public int getBinEnd(int level, int bin) {
+        return (int) Math.min(endTime, startTime + (bin + 1) * getBinWidth(level));
+    }
+
+    public int getBusyTime(int level, int bin) { return busyTimes[level][bin]; }
+    public int getDominantId(int level, int bin) { return dominantIds[level][bin]; }
+    public int getDominantLevel(int level, int bin) { return dominantLevels[level][bin]; }
+    public int getDominantTime(int level, int bin) { return dominantTimes[level][bin]; }
+}
@@ -0,0 +1,160 @@
+import java.util.*;
+
+// Per-process slice lists over a Timeline. Segment numbers are grouped by process id in one array with
+// an offset per process, so "every slice of P42" is a binary search over the distinct ids followed by a
+// contiguous run of segments in time order. Built once per finished timeline (see Timeline.getIndex());
+// what ran at a given time is Timeline.segmentAt, a binary search over the segment starts.
+public class TimelineIndex {
+    private final Timeline timeline;
+    private final int segments; // Segment count and end time when built; any append makes the index stale
+    private final int endTime;
+    private final int[] processIds; // Distinct ids, ascending
+    private final int[] offsets;    // Slices of processIds[p] are slices[offsets[p]] to slices[offsets[p + 1] - 1]
+    private final int[] slices;
+    private final long[] runTimes;
+
+    public TimelineIndex(Timeline timeline) {
+        this.timeline = timeline;
+        this.segments = timeline.segmentCount();
+        this.endTime = timeline.getEndTime();
+
+        int busy = 0;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        for (int s = 0; s < segments; s++) {
+            if (!timeline.isIdle(s)) {
+                busy++;
+                minId = Math.min(minId, timeline.getProcessId(s));
+                maxId = Math.max(maxId, timeline.getProcessId(s));
+            }
+        }
+        slices = new int[busy];
+        if (busy > 0 && maxId - minId < 2L * busy + 1024) {
+            // Ids are dense enough to count: one pass for the counts, one to place each segment
+            int base = (int) minId;
+            int[] starts = new int[(int) (maxId - minId) + 2];
+            for (int s = 0; s < segments; s++) {
+                if (!timeline.isIdle(s)) {
+                    starts[timeline.getProcessId(s) - base + 1]++;
+                }
+            }
+            int distinct = 0;
+            for (int i = 1; i < starts.length; i++) {
+                if (starts[i] > 0) {
+                    distinct++;
+                }
+                starts[i] += starts[i - 1];
+            }
+            processIds = new int[distinct];
+            offsets = new int[distinct + 1];
+            int p = 0;
+            for (int i = 0; i + 1 < starts.length; i++) {
+                if (starts[i + 1] > starts[i]) {
+                    processIds[p] = base + i;
+                    offsets[p++] = starts[i];
+                }
+            }
+            offsets[distinct] = busy;
+            for (int s = 0; s < segments; s++) {
+                if (!timeline.isIdle(s)) {
+                    slices[starts[timeline.getProcessId(s) - base]++] = s;
+                }
+            }
+        } else {
+            // Sorting (process id, segment) pairs groups each process's segments and keeps them in time order
+            long[] keys = new long[busy];
+            int k = 0;
+            for (int s = 0; s < segments; s++) {
+                if (!timeline.isIdle(s)) {
+                    keys[k++] = ((long) timeline.getProcessId(s) << 32) | s;
+                }
+            }
+            Arrays.sort(keys);
+            int distinct = 0;
+            for (int i = 0; i < busy; i++) {
+                if (i == 0 || (int) (keys[i] >> 32) != (int) (keys[i - 1] >> 32)) {
+                    distinct++;
+                }
+            }
+            processIds = new int[distinct];
+            offsets = new int[distinct + 1];
+            int p = -1;
+            for (int i = 0; i < busy; i++) {
+                if (p < 0 || processIds[p] != (int) (keys[i] >> 32)) {
+                    p++;
+                    processIds[p] = (int) (keys[i] >> 32);
+                    offsets[p] = i;
+                }
+                slices[i] = (int) keys[i];
+            }
+            offsets[distinct] = busy;
+        }
+
+        runTimes = new long[processIds.length];
+        for (int p = 0; p < processIds.length; p++) {
+            for (int i = offsets[p]; i < offsets[p + 1]; i++) {
+                runTimes[p] += timeline.getLength(slices[i]);
+            }
+        }
+    }
+
+    // Still describes the timeline it was built from, as far as appends go
+    boolean isCurrent(int segmentCount, int timelineEnd) {
+        return segments == segmentCount && endTime == timelineEnd;
+    }
+
+    public int processCount() { return processIds.length; }
+
+    public int sliceCount(int processId) {
+        int p = find(processId);
+        return p < 0 ? 0 : offsets[p + 1] - offsets[p];
+    }
+
+    // Segment number of the process's n-th slice, counting from 0 in time order
+    public int getSlice(int processId, int n) {
+        int p = find(processId);
+        if (p < 0 || n < 0 || n >= offsets[p + 1] - offsets[p]) {
+            throw new IndexOutOfBoundsException("P" + processId + " has no slice " + n);
+        }
+        return slices[offsets[p] + n];
+    }
+
+    // Position of the segment among its process's slices, or -1 for idle segments
+    public int sliceNumber(int segment) {
+        if (timeline.isIdle(segment)) {
+            return -1;
+        }
+        int p = find(timeline.getProcessId(segment));
+        int n = Arrays.binarySearch(slices, offsets[p], offsets[p + 1], segment);
+        return n < 0 ? -1 : n - offsets[p];
+    }
+
+    // First slice of the process that ends after the given time, as a slice number; sliceCount if none does
+    public int nextSlice(int processId, int time) {
+        int p = find(processId);
+        if (p < 0) {
+            return 0;
+        }
+        int low = offsets[p];
+        int high = offsets[p + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeline.getEnd(slices[mid]) <= time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - offsets[p];
+    }
+
+    // Time units the process spent on the CPU across all its slices
+    public long getRunTime(int processId) {
+        int p = find(processId);
+        return p < 0 ? 0 : runTimes[p];
+    }
+
+    private int find(int processId) {
+        return Arrays.binarySearch(processIds, processId);
+    }
+}
@@ -0,0 +1,369 @@
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+// Seeded bulk workload generation straight into ProcessTable columns. Arrivals are filled in parallel over
+// time ranges and burst times over fixed-size row chunks. Each range and chunk gets its own SplittableRandom,
+// derived in order from the seed, so a seed always gives the same workload no matter how many threads
+// fill them.
+public class WorkloadGenerator {
+    private static final int CHUNK_ROWS = 1 << 16;
+
+    // Arrivals are a Poisson process whose rate is constant over periods. The periods come from their own
+    // random stream and never depend on the arrivals, so the rate at any time is known before a single
+    // arrival is drawn and separate time ranges can be filled independently
+    public interface ArrivalProcess {
+        // Each call fills {length, rate} with the next period; plain Poisson arrivals are one endless period
+        Consumer<double[]> periods(SplittableRandom random);
+
+        // Memoryless arrivals at the given rate per time unit
+        static ArrivalProcess poisson(double rate) {
+            requirePositive(rate, "Arrival rate");
+            return random -> period -> {
+                period[0] = Double.POSITIVE_INFINITY;
+                period[1] = rate;
+            };
+        }
+
+        // Two-state Markov-modulated Poisson process: arrivals alternate between a calm rate and a burst rate,
+        // staying in each state for an exponentially distributed time with the given mean
+        static ArrivalProcess bursty(double calmRate, double burstRate, double meanCalmTime, double meanBurstTime) {
+            requirePositive(calmRate, "Calm arrival rate");
+            requirePositive(burstRate, "Burst arrival rate");
+            requirePositive(meanCalmTime, "Mean calm time");
+            requirePositive(meanBurstTime, "Mean burst time");
+            double[] rates = {calmRate, burstRate};
+            double[] meanStay = {meanCalmTime, meanBurstTime};
+            return random -> {
+                // The first period is in the state a long run would be in at a random point; the state flips
+                // before each period, so start from the other one
+                int[] state = {random.nextDouble() < meanCalmTime / (meanCalmTime + meanBurstTime) ? 1 : 0};
+                return period -> {
+                    state[0] ^= 1;
+                    period[0] = exponential(random, meanStay[state[0]]);
+                    period[1] = rates[state[0]];
+                };
+            };
+        }
+    }
+
+    // Burst times are always at least 1
+    public interface BurstDistribution {
+        int next(SplittableRandom random);
+
+        static BurstDistribution uniform(int min, int max) {
+            if (min < 1 || max < min) {
+                throw new IllegalArgumentException("Invalid burst range " + min + "-" + max);
+            }
+            return random -> random.nextInt(min, max + 1);
+        }
+
+        static BurstDistribution exponential(double mean) {
+            if (!(mean >= 1)) {
+                throw new IllegalArgumentException("Mean burst time must be at least 1, got " + mean);
+            }
+            return random -> toBurst(1 + WorkloadGenerator.exponential(random, mean - 1));
+        }
+
+        // Heavy-tailed: P(burst > x) = (min / x)^alpha; alpha <= 2 gives infinite variance
+        static BurstDistribution pareto(double alpha, int min) {
+            requirePositive(alpha, "Pareto shape");
+            if (min < 1) {
+                throw new IllegalArgumentException("Minimum burst time must be at least 1, got " + min);
+            }
+            // min * U^(-1/alpha) written as an exponential, which is cheaper to draw than a power
+            return random -> toBurst(min * Math.exp(WorkloadGenerator.exponential(random, 1.0 / alpha)));
+        }
+
+        // Mostly short interactive jobs with a fraction of long batch jobs
+        static BurstDistribution bimodal(BurstDistribution shortJobs, BurstDistribution longJobs, double longFraction) {
+            if (longFraction < 0 || longFraction > 1) {
+                throw new IllegalArgumentException("Long job fraction must be in [0, 1], got " + longFraction);
+            }
+            return random -> random.nextDouble() < longFraction ? longJobs.next(random) : shortJobs.next(random);
+        }
+    }
+
+    private final long seed;
+    private ArrivalProcess arrivals = ArrivalProcess.poisson(0.1);
+    private BurstDistribution bursts = BurstDistribution.exponential(10);
+    private int startTime = 0;
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    // Setters
+    public WorkloadGenerator setArrivals(ArrivalProcess arrivals) {
+        this.arrivals = arrivals;
+        return this;
+    }
+
+    public WorkloadGenerator setBursts(BurstDistribution bursts) {
+        this.bursts = bursts;
+        return this;
+    }
+
+    // Arrivals begin after this time
+    public WorkloadGenerator setStartTime(int startTime) {
+        this.startTime = startTime;
+        return this;
+    }
+
+    // Process ids are 1..count and rows are in arrival order
+    public ProcessTable generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Process count must not be negative, got " + count);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom burstSeeds = root.split();
+        SplittableRandom rangeSeeds = root.split();
+        RatePath path = new RatePath(arrivals.periods(root.split()), startTime);
+
+        int[] processIds = new int[count];
+        int[] arrivalTimes = new int[count];
+        int[] burstTimes = new int[count];
+
+        // Ranges are cut in order to hold about CHUNK_ROWS expected arrivals each and then filled in parallel.
+        // Poisson arrivals restart at any fixed time without changing the process, so every range draws from
+        // the true rate at its start. If the ranges come up short, more are cut after the last one.
+        List<ArrivalRange> ranges = new ArrayList<>();
+        long filled = 0;
+        while (filled < count) {
+            int first = ranges.size();
+            double expected = count - filled + 4 * Math.sqrt(count - filled) + 1;
+            for (double planned = 0; planned < expected; planned += CHUNK_ROWS) {
+                ranges.add(path.nextRange(rangeSeeds.nextLong()));
+            }
+            List<ArrivalRange> batch = ranges.subList(first, ranges.size());
+            batch.parallelStream().forEach(ArrivalRange::fill);
+            for (ArrivalRange range : batch) {
+                filled += range.count;
+            }
+        }
+
+        int row = 0;
+        for (ArrivalRange range : ranges) {
+            range.firstRow = row;
+            row = (int) Math.min(count, (long) row + range.count);
+        }
+        if (count > 0 && lastArrival(ranges, count) == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Arrival times exceed the int range; raise the arrival rate or lower the count");
+        }
+        ranges.parallelStream().forEach(range -> {
+            int rows = Math.max(0, Math.min(range.count, count - range.firstRow));
+            System.arraycopy(range.times, 0, arrivalTimes, range.firstRow, rows);
+        });
+
+        int chunks = (count + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        long[] chunkSeeds = new long[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            chunkSeeds[chunk] = burstSeeds.nextLong();
+        }
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SplittableRandom burstRandom = new SplittableRandom(chunkSeeds[chunk]);
+            for (int r = chunk * CHUNK_ROWS, last = chunkEnd(chunk, count); r < last; r++) {
+                processIds[r] = r + 1;
+                burstTimes[r] = bursts.next(burstRandom);
+            }
+        });
+        return ProcessTable.fromColumns(processIds, arrivalTimes, burstTimes);
+    }
+
+    // Arrival times past the int range are stored saturated at Integer.MAX_VALUE
+    private static int lastArrival(List<ArrivalRange> ranges, int count) {
+        for (int i = ranges.size() - 1; i >= 0; i--) {
+            ArrivalRange range = ranges.get(i);
+            if (range.firstRow < count && range.count > 0) {
+                return range.times[Math.min(range.count, count - range.firstRow) - 1];
+            }
+        }
+        return 0;
+    }
+
+    // Period ends and rates drawn so far, in time order, and where the last range was cut
+    private static class RatePath {
+        private final Consumer<double[]> periods;
+        private final double[] period = new double[2];
+        private double[] ends = new double[16];
+        private double[] rates = new double[16];
+        private int size;
+        private double cutTime;
+        private int cutPeriod;
+
+        RatePath(Consumer<double[]> periods, double startTime) {
+            this.periods = periods;
+            this.cutTime = startTime;
+        }
+
+        double end(int index) {
+            while (size <= index) {
+                periods.accept(period);
+                if (size == ends.length) {
+                    ends = Arrays.copyOf(ends, size * 2);
+                    rates = Arrays.copyOf(rates, size * 2);
+                }
+                ends[size] = (size == 0 ? cutTime : ends[size - 1]) + period[0];
+                rates[size] = period[1];
+                size++;
+            }
+            return ends[index];
+        }
+
+        double rate(int index) {
+            end(index);
+            return rates[index];
+        }
+
+        // The next range starts where the last one ended and runs until CHUNK_ROWS arrivals are expected
+        ArrivalRange nextRange(long seed) {
+            ArrivalRange range = new ArrivalRange(this, seed, cutTime, cutPeriod);
+            double needed = CHUNK_ROWS;
+            while (true) {
+                double capacity = (end(cutPeriod) - cutTime) * rate(cutPeriod);
+                if (capacity >= needed) {
+                    cutTime = Math.min(end(cutPeriod), cutTime + needed / rate(cutPeriod));
+                    break;
+                }
+                needed -= capacity;
+                cutTime = end(cutPeriod++);
+            }
+            range.end = cutTime;
+            return range;
+        }
+    }
+
+    // Arrival times in [start, end), drawn as exponential gaps at the rate of the period they fall in and
+    // kept rounded down to whole time units
+    private static class ArrivalRange {
+        private final RatePath path;
+        private final long seed;
+        private final double start;
+        private final int firstPeriod;
+        private double end;
+        private int[] times;
+        private int count;
+        private int firstRow;
+
+        ArrivalRange(RatePath path, long seed, double start, int firstPeriod) {
+            this.path = path;
+            this.seed = seed;
+            this.start = start;
+            this.firstPeriod = firstPeriod;
+        }
+
+        // Only reads periods that nextRange has already drawn, so ranges can fill concurrently
+        void fill() {
+            SplittableRandom random = new SplittableRandom(seed);
+            times = new int[CHUNK_ROWS + (CHUNK_ROWS >> 4)];
+            double time = start;
+            int period = firstPeriod;
+            double periodEnd = Math.min(path.ends[period], end);
+            double meanGap = 1.0 / path.rates[period];
+            while (true) {
+                double next = time + standardExponential(random) * meanGap;
+                if (next < periodEnd) {
+                    if (count == times.length) {
+                        times = Arrays.copyOf(times, count + (count >> 1));
+                    }
+                    times[count++] = (int) next;
+                    time = next;
+                } else if (periodEnd < end) {
+                    // A new period starts; the gap is drawn again from its end at the new rate
+                    time = periodEnd;
+                    period++;
+                    periodEnd = Math.min(path.ends[period], end);
+                    meanGap = 1.0 / path.rates[period];
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    public List<Process> generateProcesses(int count) {
+        ProcessTable table = generate(count);
+        List<Process> processes = new ArrayList<>(count);
+        for (int row = 0; row < count; row++) {
+            processes.add(new Process(table.getProcessId(row), table.getArrivalTime(row), table.getBurstTime(row)));
+        }
+        return processes;
+    }
+
+    private static int chunkEnd(int chunk, int count) {
+        return (int) Math.min(count, (long) (chunk + 1) * CHUNK_ROWS);
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return standardExponential(random) * mean;
+    }
+
+    // Ziggurat method (Marsaglia and Tsang) with 256 layers: almost every sample is one random long, a table
+    // lookup and a multiply, where -log(U) costs a logarithm per sample
+    private static final double ZIGGURAT_EDGE = 7.697117470131487;
+    private static final double ZIGGURAT_AREA = 3.949659822581572e-3;
+    private static final long[] LAYER_LIMITS = new long[256];
+    private static final double[] LAYER_WIDTHS = new double[256];
+    private static final double[] LAYER_DENSITIES = new double[256];
+
+    static {
+        double scale = 4294967296.0;
+        double edge = ZIGGURAT_EDGE;
+        double previous = ZIGGURAT_EDGE;
+        double base = ZIGGURAT_AREA / Math.exp(-edge);
+        LAYER_LIMITS[0] = (long) (edge / base * scale);
+        LAYER_WIDTHS[0] = base / scale;
+        LAYER_WIDTHS[255] = edge / scale;
+        LAYER_DENSITIES[0] = 1.0;
+        LAYER_DENSITIES[255] = Math.exp(-edge);
+        for (int i = 254; i >= 1; i--) {
+            edge = -Math.log(ZIGGURAT_AREA / edge + Math.exp(-edge));
+            LAYER_LIMITS[i + 1] = (long) (edge / previous * scale);
+            previous = edge;
+            LAYER_DENSITIES[i] = Math.exp(-edge);
+            LAYER_WIDTHS[i] = edge / scale;
+        }
+    }
+
+    private static double standardExponential(SplittableRandom random) {
+        long bits = random.nextLong();
+        int layer = (int) bits & 255;
+        long u = bits >>> 32;
+        if (u < LAYER_LIMITS[layer]) {
+            return u * LAYER_WIDTHS[layer];
+        }
+        return exponentialEdge(random, layer, u);
+    }
+
+    // The rare draws that land outside a layer's rectangle: the tail past the last layer, or a point near
+    // the curve that has to be checked against it (and redrawn if it falls above)
+    private static double exponentialEdge(SplittableRandom random, int layer, long u) {
+        while (true) {
+            if (layer == 0) {
+                return ZIGGURAT_EDGE - Math.log(1.0 - random.nextDouble());
+            }
+            double x = u * LAYER_WIDTHS[layer];
+            double density = LAYER_DENSITIES[layer] + random.nextDouble() * (LAYER_DENSITIES[layer - 1] - LAYER_DENSITIES[layer]);
+            if (density < Math.exp(-x)) {
+                return x;
+            }
+            long bits = random.nextLong();
+            layer = (int) bits & 255;
+            u = bits >>> 32;
+            if (u < LAYER_LIMITS[layer]) {
+                return u * LAYER_WIDTHS[layer];
+            }
+        }
+    }
+
+    // The cast already saturates at Integer.MAX_VALUE (and NaN becomes 0), so only the low end needs a clamp
+    private static int toBurst(double value) {
+        return Math.max(1, (int) value);
+    }
+
+    private static void requirePositive(double value, String name) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException(name + " must be positive, got " + value);
+        }
+    }
+}
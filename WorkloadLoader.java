@@ -0,0 +1,286 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+public class WorkloadLoader {
+    // Binary trace: "CPUW" magic, int record count, then (id, arrival, burst) big-endian int records
+    public static final int BINARY_MAGIC = 0x43505557;
+    public static final int BINARY_HEADER_BYTES = 8;
+    public static final int BINARY_RECORD_BYTES = 12;
+
+    private static final long CHUNK_BYTES = 64L * 1024 * 1024;
+
+    public static ProcessTable load(Path path) throws IOException {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".txt") ? loadCsv(path) : loadBinary(path);
+    }
+
+    // CSV rows of "id,arrival,burst" with non-negative ints; blank lines, # comments and a header on the first
+    // line are skipped, and any other row that doesn't parse fails the load with its line and column
+    public static ProcessTable loadCsv(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLineBreaks(channel);
+            int chunks = bounds.length - 1;
+
+            // Parse every chunk into its own columns, then stitch them together in file order
+            int[][][] parsed = new int[chunks][][];
+            runChunks(chunks, chunk -> parsed[chunk] = parseCsvChunk(channel, bounds[chunk], bounds[chunk + 1]));
+
+            long total = 0;
+            for (int[][] columns : parsed) {
+                total += columns[3][0];
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IOException("Trace has too many rows: " + total);
+            }
+            int[] processIds = new int[(int) total];
+            int[] arrivalTimes = new int[(int) total];
+            int[] burstTimes = new int[(int) total];
+            int offset = 0;
+            for (int[][] columns : parsed) {
+                int rows = columns[3][0];
+                System.arraycopy(columns[0], 0, processIds, offset, rows);
+                System.arraycopy(columns[1], 0, arrivalTimes, offset, rows);
+                System.arraycopy(columns[2], 0, burstTimes, offset, rows);
+                offset += rows;
+            }
+            return ProcessTable.fromColumns(processIds, arrivalTimes, burstTimes);
+        }
+    }
+
+    public static ProcessTable loadBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BINARY_HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < BINARY_HEADER_BYTES || header.getInt() != BINARY_MAGIC) {
+                throw new IOException("Not a binary workload trace: " + path);
+            }
+            int count = header.getInt();
+            if (count < 0 || channel.size() < BINARY_HEADER_BYTES + (long) count * BINARY_RECORD_BYTES) {
+                throw new IOException("Truncated binary workload trace: " + path);
+            }
+
+            int[] processIds = new int[count];
+            int[] arrivalTimes = new int[count];
+            int[] burstTimes = new int[count];
+
+            // Records have a fixed width, so each chunk writes straight into its slice of the columns
+            int recordsPerChunk = (int) (CHUNK_BYTES / BINARY_RECORD_BYTES);
+            int chunks = (count + recordsPerChunk - 1) / recordsPerChunk;
+            runChunks(chunks, chunk -> {
+                int first = chunk * recordsPerChunk;
+                int last = Math.min(count, first + recordsPerChunk);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        BINARY_HEADER_BYTES + (long) first * BINARY_RECORD_BYTES,
+                        (long) (last - first) * BINARY_RECORD_BYTES);
+                for (int i = first; i < last; i++) {
+                    processIds[i] = buffer.getInt();
+                    arrivalTimes[i] = buffer.getInt();
+                    burstTimes[i] = buffer.getInt();
+                }
+            });
+            return ProcessTable.fromColumns(processIds, arrivalTimes, burstTimes);
+        }
+    }
+
+    public static void writeBinary(ProcessTable table, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            buffer.putInt(BINARY_MAGIC).putInt(table.size());
+            for (int row = 0; row < table.size(); row++) {
+                if (buffer.remaining() < BINARY_RECORD_BYTES) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(table.getProcessId(row))
+                      .putInt(table.getArrivalTime(row))
+                      .putInt(table.getBurstTime(row));
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Chunk boundaries roughly CHUNK_BYTES apart, each moved forward to just after a line break
+    private static long[] splitAtLineBreaks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, (size + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        long[] bounds = new long[chunks + 1];
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(bounds[i - 1], i * CHUNK_BYTES);
+            boolean found = false;
+            while (!found && position < size) {
+                probe.clear();
+                int read = channel.read(probe, position);
+                for (int j = 0; j < read; j++) {
+                    if (probe.get(j) == '\n') {
+                        position += j + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    position += Math.max(read, 0);
+                }
+            }
+            bounds[i] = Math.min(position, size);
+        }
+        bounds[chunks] = size;
+        return bounds;
+    }
+
+    // Returns {ids, arrivals, bursts, {rowCount}} parsed directly from the mapped bytes
+    private static int[][] parseCsvChunk(FileChannel channel, long start, long end) throws IOException {
+        int length = (int) (end - start);
+        int capacity = Math.max(16, length / 8);
+        int[] ids = new int[capacity];
+        int[] arrivals = new int[capacity];
+        int[] bursts = new int[capacity];
+        int rows = 0;
+        if (length == 0) {
+            return new int[][]{ids, arrivals, bursts, {0}};
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        int pos = 0;
+        int[] field = new int[3];
+        while (pos < length) {
+            int lineStart = pos;
+            // Skip leading whitespace on the line
+            while (pos < length && isBlank(buffer.get(pos))) {
+                pos++;
+            }
+            if (pos >= length) {
+                break;
+            }
+            byte first = buffer.get(pos);
+            if (first == '\n' || first == '#' || (start + lineStart == 0 && isLetter(first))) {
+                // Empty line, comment, or a header on the file's first line
+                pos = skipLine(buffer, pos, length);
+                continue;
+            }
+
+            for (int f = 0; f < 3; f++) {
+                while (pos < length && isBlank(buffer.get(pos))) {
+                    pos++;
+                }
+                int value = 0;
+                int digits = 0;
+                while (pos < length) {
+                    byte b = buffer.get(pos);
+                    if (b < '0' || b > '9') {
+                        break;
+                    }
+                    int d = b - '0';
+                    if (value > (Integer.MAX_VALUE - d) / 10) {
+                        throw malformed(channel, start + pos, "number too large");
+                    }
+                    value = value * 10 + d;
+                    digits++;
+                    pos++;
+                }
+                if (digits == 0) {
+                    throw malformed(channel, start + pos, "expected a non-negative integer");
+                }
+                while (pos < length && isBlank(buffer.get(pos))) {
+                    pos++;
+                }
+                field[f] = value;
+                if (f < 2) {
+                    if (pos >= length || buffer.get(pos) != ',') {
+                        throw malformed(channel, start + pos, "expected id,arrival,burst");
+                    }
+                    pos++;
+                }
+            }
+            if (pos < length && buffer.get(pos) != '\n') {
+                throw malformed(channel, start + pos, "unexpected text after id,arrival,burst");
+            }
+            pos++;
+
+            if (rows == ids.length) {
+                int grown = rows + (rows >> 1) + 1;
+                ids = Arrays.copyOf(ids, grown);
+                arrivals = Arrays.copyOf(arrivals, grown);
+                bursts = Arrays.copyOf(bursts, grown);
+            }
+            ids[rows] = field[0];
+            arrivals[rows] = field[1];
+            bursts[rows] = field[2];
+            rows++;
+        }
+        return new int[][]{ids, arrivals, bursts, {rows}};
+    }
+
+    // Chunks don't know their first line number, so it is counted from the file start, only on failure
+    private static IOException malformed(FileChannel channel, long offset, String reason) throws IOException {
+        long line = 1;
+        long lineStart = 0;
+        ByteBuffer probe = ByteBuffer.allocate(1 << 16);
+        for (long position = 0; position < offset; ) {
+            probe.clear();
+            probe.limit((int) Math.min(probe.capacity(), offset - position));
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int j = 0; j < read; j++) {
+                if (probe.get(j) == '\n') {
+                    line++;
+                    lineStart = position + j + 1;
+                }
+            }
+            position += read;
+        }
+        return new IOException("Malformed CSV row at line " + line + ", column " + (offset - lineStart + 1)
+                + " (byte " + offset + "): " + reason);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '"';
+    }
+
+    private static int skipLine(ByteBuffer buffer, int pos, int length) {
+        while (pos < length && buffer.get(pos) != '\n') {
+            pos++;
+        }
+        return pos + 1;
+    }
+
+    private interface ChunkTask {
+        void run(int chunk) throws IOException;
+    }
+
+    // Run chunks on the common fork-join pool, rethrowing the first I/O failure
+    private static void runChunks(int chunks, ChunkTask task) throws IOException {
+        try {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                try {
+                    task.run(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.*;
+
+// SchedulerBenchmark's cases under JMH: the same schedulers, workloads and ops, with JMH doing the forking,
+// warmup and measurement. Allocation and GC figures come from its gc profiler (-prof gc).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class SchedulerJmh {
+    @Param({"FCFS", "SJF", "SRTF", "RR q=2", "RR q=8", "RR q=32", "MLFQ q=2", "MLFQ q=8", "MLFQ q=32", "MLFQ 16 lvl"})
+    public String scheduler;
+
+    @Param({"UNIFORM", "EXPONENTIAL", "BIMODAL"})
+    public String bursts;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"false"})
+    public boolean fresh; // true constructs a new scheduler per op instead of resetting one
+
+    private LongSupplier operation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        // The schedulers are in the default package, which code in a named package can't import
+        operation = (LongSupplier) Class.forName("SchedulerBenchmark")
+                .getMethod("operation", String.class, String.class, int.class, boolean.class)
+                .invoke(null, scheduler, bursts, size, fresh);
+    }
+
+    @Benchmark
+    public long schedule() {
+        return operation.getAsLong();
+    }
+}